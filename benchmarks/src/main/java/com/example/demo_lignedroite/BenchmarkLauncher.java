@@ -0,0 +1,23 @@
+package com.example.demo_lignedroite;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Point d'entrée du jar de bancs d'essai : les options JMH de la ligne de commande,
+ * avec le profileur GC toujours actif pour mesurer le taux d'allocation.
+ */
+public class BenchmarkLauncher {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
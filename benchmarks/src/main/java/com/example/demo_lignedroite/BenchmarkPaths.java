@@ -0,0 +1,60 @@
+package com.example.demo_lignedroite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Entrées des bancs d'essai : tracés générés par PathGenerator, reproductibles (graine fixe).
+ * Les tracés vont de START à END, à l'échelle du canevas de l'application.
+ */
+public final class BenchmarkPaths {
+
+    // Formes de tracé utilisateur proposées par PathGenerator
+    public enum Shape { NOISY_LINE, ARC, SINUSOID, SPIKY_LINE, OVERLAPPING_LINE }
+
+    static final Point START = new Point(100, 100);
+    static final Point END = new Point(700, 500);
+
+    private static final long SEED = 42;
+
+    private BenchmarkPaths() {
+    }
+
+    /**
+     * Tracé utilisateur de la forme demandée, bruité d'au plus {@code noise} pixels par coordonnée.
+     * Pour NOISY_LINE le bruit est celui de PathGenerator (extrémités exactes) ; pour les autres
+     * formes il est ajouté à chaque point.
+     */
+    static List<Point> userPath(Shape shape, int pointCount, double noise) {
+        PathGenerator generator = new PathGenerator(SEED);
+
+        List<Point> path = switch (shape) {
+            case NOISY_LINE -> generator.generateNoisyLine(START, END, pointCount, noise);
+            case ARC -> generator.generateArc(START, END, pointCount, 80);
+            case SINUSOID -> generator.generateSinusoid(START, END, pointCount, 3, 30);
+            case SPIKY_LINE -> generator.generateSpikyLine(START, END, pointCount, 5, 40);
+            case OVERLAPPING_LINE -> generator.generateOverlappingLine(START, END, pointCount, 0.2);
+        };
+
+        return (shape == Shape.NOISY_LINE || noise == 0) ? path : addNoise(path, noise);
+    }
+
+    /**
+     * Ligne droite idéale de même nombre de points (le modèle auquel le tracé est comparé).
+     */
+    static List<Point> modelPath(int pointCount) {
+        return new PathGenerator(SEED).generatePerfectLine(START, END, pointCount);
+    }
+
+    private static List<Point> addNoise(List<Point> path, double noise) {
+        Random random = new Random(SEED);
+        List<Point> noisy = new ArrayList<>(path.size());
+        for (Point p : path) {
+            double noiseX = (random.nextDouble() * 2 * noise) - noise;
+            double noiseY = (random.nextDouble() * 2 * noise) - noise;
+            noisy.add(new Point(p.x() + noiseX, p.y() + noiseY));
+        }
+        return noisy;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo_lignedroite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simplification de Douglas-Peucker et calcul de la pénalité (DouglasPeuckerAnalyzer.analyze),
+ * avec la tolérance utilisée par le Controller.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DouglasPeuckerBenchmark {
+
+    @Param({"NOISY_LINE", "ARC", "SINUSOID", "SPIKY_LINE", "OVERLAPPING_LINE"})
+    public BenchmarkPaths.Shape shape;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int pointCount;
+
+    @Param({"0", "5", "20"})
+    public double noise;
+
+    @Param({"1"})
+    public double epsilon;
+
+    private List<Point> userPoints;
+    private Trace user;
+
+    @Setup
+    public void setUp() {
+        userPoints = BenchmarkPaths.userPath(shape, pointCount, noise);
+        user = Trace.of(userPoints);
+    }
+
+    @Benchmark
+    public DouglasPeuckerAnalyzer.AnalysisResult analyze() {
+        return DouglasPeuckerAnalyzer.analyze(user, epsilon);
+    }
+
+    @Benchmark
+    public DouglasPeuckerAnalyzer.AnalysisResult analyzeList() {
+        return DouglasPeuckerAnalyzer.analyze(userPoints, epsilon);
+    }
+}
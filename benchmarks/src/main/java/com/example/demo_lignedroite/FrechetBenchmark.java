@@ -0,0 +1,74 @@
+package com.example.demo_lignedroite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance de Fréchet discrète entre un tracé utilisateur et la ligne idéale.
+ * La version matricielle historique (O(n·m) en mémoire) n'est pas mesurée : à 100k points
+ * elle demanderait 80 Go ; on mesure le noyau à deux lignes, sans borne puis avec abandon précoce.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrechetBenchmark {
+
+    @Param({"NOISY_LINE", "ARC", "SINUSOID", "SPIKY_LINE", "OVERLAPPING_LINE"})
+    public BenchmarkPaths.Shape shape;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int pointCount;
+
+    @Param({"0", "5", "20"})
+    public double noise;
+
+    private List<Point> userPoints;
+    private List<Point> modelPoints;
+    private Trace user;
+    private Trace model;
+    private double[] scratch;
+
+    // Borne à la moitié de la distance exacte : force l'abandon précoce du calcul
+    private double halfDistance;
+
+    @Setup
+    public void setUp() {
+        userPoints = BenchmarkPaths.userPath(shape, pointCount, noise);
+        modelPoints = BenchmarkPaths.modelPath(pointCount);
+        user = Trace.of(userPoints);
+        model = Trace.of(modelPoints);
+        scratch = FrechetDistanceCalculator.scratchFor(pointCount, pointCount);
+        halfDistance = FrechetDistanceCalculator.calculateDiscreteFrechetLinear(user, model, scratch) / 2;
+    }
+
+    @Benchmark
+    public double unbounded() {
+        return FrechetDistanceCalculator.calculateDiscreteFrechet(user, model, Double.POSITIVE_INFINITY, scratch);
+    }
+
+    @Benchmark
+    public double earlyAbandon() {
+        return FrechetDistanceCalculator.calculateDiscreteFrechet(user, model, halfDistance, scratch);
+    }
+
+    @Benchmark
+    public double listAdapter() {
+        // Chemin List<Point> (conversion en Trace + tampon du thread), celui des anciens appelants
+        return FrechetDistanceCalculator.calculateDiscreteFrechetLinear(userPoints, modelPoints);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo_lignedroite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche complète de la meilleure rotation (PathRotationOptimizer.findOptimalRotation),
+ * pour chaque mode de recherche. Un balayage exhaustif évalue jusqu'à 2880 angles en O(n²)
+ * chacun : les tailles par défaut s'arrêtent à 1000 points (l'application sous-échantillonne
+ * les tracés bien en dessous) ; les tailles supérieures se demandent avec -p pointCount=10000,100000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RotationBenchmark {
+
+    @Param({"NOISY_LINE", "ARC", "SINUSOID", "SPIKY_LINE", "OVERLAPPING_LINE"})
+    public BenchmarkPaths.Shape shape;
+
+    @Param({"100", "1000"})
+    public int pointCount;
+
+    @Param({"0", "5", "20"})
+    public double noise;
+
+    @Param({"EXHAUSTIVE", "COARSE_TO_FINE", "ANALYTIC"})
+    public PathRotationOptimizer.SearchMode searchMode;
+
+    private List<Point> userPoints;
+    private List<Point> modelPoints;
+    private PathRotationOptimizer optimizer;
+
+    @Setup
+    public void setUp() {
+        userPoints = BenchmarkPaths.userPath(shape, pointCount, noise);
+        modelPoints = BenchmarkPaths.modelPath(pointCount);
+        optimizer = new PathRotationOptimizer(searchMode);
+    }
+
+    @Benchmark
+    public PathRotationOptimizer.RotationResult findOptimalRotation() {
+        return optimizer.findOptimalRotation(userPoints, modelPoints);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo_lignedroite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par angle candidat du balayage exhaustif. L'élagage par bornes inférieures est désactivé :
+ * chacun des 2880 candidats (1440 angles × 2 orientations) est tourné puis évalué, et les
+ * métriques par opération (dont gc.alloc.rate.norm du profileur GC) sont ramenées à UN candidat.
+ * Attendu : quelques octets par candidat (les messages de console par recherche, amortis),
+ * aucun tracé tourné n'étant alloué avant le gagnant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RotationSweepBenchmark {
+
+    private static final int CANDIDATES = 2880;
+
+    @Param({"NOISY_LINE", "ARC"})
+    public BenchmarkPaths.Shape shape;
+
+    @Param({"100", "1000"})
+    public int pointCount;
+
+    private Trace userPoints;
+    private ModelTemplate model;
+    private PathRotationOptimizer optimizer;
+
+    @Setup
+    public void setUp() {
+        userPoints = Trace.of(BenchmarkPaths.userPath(shape, pointCount, 5));
+        model = ModelTemplate.of(Trace.of(BenchmarkPaths.modelPath(pointCount)));
+        optimizer = new PathRotationOptimizer(PathRotationOptimizer.SearchMode.EXHAUSTIVE);
+        optimizer.setLowerBoundPruning(false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public PathRotationOptimizer.RotationResult sweepPerCandidate() {
+        return optimizer.findOptimalRotation(userPoints, model);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo_lignedroite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estimations analytiques (en O(n)) de l'angle qui aligne le tracé utilisateur sur le modèle,
+ * les deux tracés étant déjà centrés à l'origine. Convention d'angle identique à
+ * PathRotationOptimizer.rotatePoints (rotation anti-horaire, en degrés).
+ */
+public class AnalyticAlignment implements AngleEstimator {
+
+    @Override
+    public List<AngleCandidate> estimate(Trace centeredUser, Trace reversedUser, Trace centeredModel) {
+        return candidates(centeredUser, reversedUser, centeredModel);
+    }
+
+    /**
+     * Rotation de Procrustes : angle qui maximise la somme des produits scalaires entre
+     * points homologues (appariés par indice relatif si les tailles diffèrent).
+     * La confiance est la corrélation normalisée |Σ m·R(θ)u| / sqrt(Σ|u|² Σ|m|²).
+     */
+    public static AngleCandidate procrustes(Trace centeredUser, Trace centeredModel, boolean isReversed) {
+        int n = centeredUser.size();
+        int m = centeredModel.size();
+
+        double dot = 0, cross = 0, normUser = 0, normModel = 0;
+        for (int i = 0; i < n; i++) {
+            double ux = centeredUser.x(i), uy = centeredUser.y(i);
+            int j = matchingIndex(i, n, m);
+            double px = centeredModel.x(j), py = centeredModel.y(j);
+
+            dot += ux * px + uy * py;
+            cross += ux * py - uy * px;
+            normUser += ux * ux + uy * uy;
+            normModel += px * px + py * py;
+        }
+
+        double norm = Math.sqrt(normUser * normModel);
+        double confidence = (norm > 0) ? Math.hypot(dot, cross) / norm : 0;
+
+        return new AngleCandidate(normalizeAngle(Math.toDegrees(Math.atan2(cross, dot))), isReversed, confidence, "Procrustes");
+    }
+
+    /**
+     * Axe principal (ACP) d'un tracé centré.
+     * @return {angle de l'axe en degrés, anisotropie entre 0 (isotrope) et 1 (segment)}.
+     */
+    public static double[] principalAxis(Trace centeredPoints) {
+        double sxx = 0, syy = 0, sxy = 0;
+        for (int i = 0; i < centeredPoints.size(); i++) {
+            double x = centeredPoints.x(i), y = centeredPoints.y(i);
+            sxx += x * x;
+            syy += y * y;
+            sxy += x * y;
+        }
+
+        double trace = sxx + syy;
+        double anisotropy = (trace > 0) ? Math.hypot(sxx - syy, 2 * sxy) / trace : 0;
+        double axisAngle = 0.5 * Math.toDegrees(Math.atan2(2 * sxy, sxx - syy));
+
+        return new double[]{axisAngle, anisotropy};
+    }
+
+    /**
+     * Tous les candidats analytiques : Procrustes pour chaque orientation, et l'écart entre
+     * axes principaux (valable pour les deux orientations), chacun avec son retournement de 180°.
+     */
+    public static List<AngleCandidate> candidates(Trace centeredUser, Trace reversedUser, Trace centeredModel) {
+        List<AngleCandidate> candidates = new ArrayList<>();
+
+        double[] userAxis = principalAxis(centeredUser);
+        double[] modelAxis = principalAxis(centeredModel);
+        double pcaAngle = modelAxis[0] - userAxis[0];
+        double pcaConfidence = Math.min(userAxis[1], modelAxis[1]);
+
+        for (boolean isReversed : new boolean[]{false, true}) {
+            AngleCandidate fit = procrustes(isReversed ? reversedUser : centeredUser, centeredModel, isReversed);
+            candidates.add(fit);
+            candidates.add(new AngleCandidate(normalizeAngle(fit.angle() + 180), isReversed, fit.confidence(), fit.source()));
+
+            candidates.add(new AngleCandidate(normalizeAngle(pcaAngle), isReversed, pcaConfidence, "PCA"));
+            candidates.add(new AngleCandidate(normalizeAngle(pcaAngle + 180), isReversed, pcaConfidence, "PCA"));
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Indice du point modèle homologue du point i du tracé utilisateur (même position relative).
+     */
+    private static int matchingIndex(int i, int n, int m) {
+        if (n == m) {
+            return i;
+        }
+        return (n == 1) ? 0 : (int) Math.round((double) i * (m - 1) / (n - 1));
+    }
+
+    private static double normalizeAngle(double angle) {
+        return ((angle % 360) + 360) % 360;
+    }
+}
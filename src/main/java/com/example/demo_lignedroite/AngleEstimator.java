@@ -0,0 +1,29 @@
+package com.example.demo_lignedroite;
+
+import java.util.List;
+
+/**
+ * Stratégie d'estimation directe de l'angle qui aligne le tracé utilisateur sur le modèle
+ * (tracés déjà centrés). PathRotationOptimizer, en mode ANALYTIC, n'évalue Fréchet qu'autour
+ * des angles proposés, selon leur confiance.
+ */
+public interface AngleEstimator {
+
+    /**
+     * Angle candidat produit par une estimation.
+     * @param angle Angle de rotation à appliquer au tracé utilisateur (en degrés, dans [0, 360[).
+     * @param isReversed Orientation du tracé utilisateur à laquelle l'angle s'applique.
+     * @param confidence Qualité de l'estimation, de 0 (ambiguë) à 1 (certaine).
+     * @param source Méthode ayant produit le candidat ("PCA", "Procrustes"...).
+     */
+    record AngleCandidate(double angle, boolean isReversed, double confidence, String source) {}
+
+    /**
+     * Propose des angles candidats, pour l'une ou l'autre orientation du tracé utilisateur.
+     * @param centeredUser Le tracé utilisateur centré (orientation originale).
+     * @param reversedUser Le même tracé parcouru à l'envers.
+     * @param centeredModel Le tracé modèle centré.
+     * @return Les candidats, dans un ordre quelconque.
+     */
+    List<AngleCandidate> estimate(Trace centeredUser, Trace reversedUser, Trace centeredModel);
+}
@@ -0,0 +1,85 @@
+package com.example.demo_lignedroite;
+
+/**
+ * Rééchantillonnage d'un tracé en points régulièrement espacés le long de la courbe
+ * (abscisse curviligne), indépendamment de la fréquence des événements souris.
+ * <p>
+ * Avec un pas h, tout point du tracé d'origine est à moins de h/2 (le long de la courbe, donc
+ * aussi à vol d'oiseau) d'un point rééchantillonné : le pas est choisi à 2 × tolérance, soit
+ * longueur / (2 × tolérance) + 1 points, au moins MIN_POINTS (davantage de points ne fait que
+ * resserrer l'écart). Le nombre de points n'est pas plafonné, sinon la borne ne tiendrait plus
+ * pour les tracés longs ; le coût de Fréchet (O(n·m)) ne dépend que de la longueur du tracé.
+ */
+public final class ArcLengthResampler {
+
+    // Écart maximal (en pixels) entre le tracé et sa version rééchantillonnée
+    public static final double DEFAULT_TOLERANCE = 1.0;
+
+    static final int MIN_POINTS = 8;
+
+    private ArcLengthResampler() {
+    }
+
+    /**
+     * Nombre de points pour une courbe de longueur {@code length} à la tolérance donnée.
+     */
+    public static int pointCount(double length, double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolérance invalide : " + tolerance);
+        }
+        double count = Math.ceil(length / (2 * tolerance)) + 1;
+        return (int) Math.max(MIN_POINTS, count);
+    }
+
+    /**
+     * Tracé rééchantillonné à la tolérance donnée (nombre de points adapté à sa longueur).
+     */
+    public static Trace resample(Trace trace, double tolerance) {
+        return resample(trace, pointCount(trace.pathLength(), tolerance));
+    }
+
+    /**
+     * {@code count} points régulièrement espacés le long du tracé, du premier au dernier point
+     * (conservés). Un tracé de longueur nulle donne {@code count} copies de son premier point.
+     * @throws IllegalArgumentException si le tracé est vide ou {@code count < 2}.
+     */
+    public static Trace resample(Trace trace, int count) {
+        if (trace.isEmpty()) {
+            throw new IllegalArgumentException("Le tracé doit contenir au moins un point");
+        }
+        if (count < 2) {
+            throw new IllegalArgumentException("Il faut au moins 2 points : " + count);
+        }
+
+        Trace resampled = new Trace(count);
+        int n = trace.size();
+        double length = trace.pathLength();
+        if (!(length > 0)) {
+            for (int k = 0; k < count; k++) {
+                resampled.set(k, trace.x(0), trace.y(0));
+            }
+            return resampled;
+        }
+
+        // Parcours des segments : [travelled, travelled + segment] contient l'abscisse cible
+        double step = length / (count - 1);
+        int i = 0;
+        double travelled = 0;
+        double segment = Math.hypot(trace.x(1) - trace.x(0), trace.y(1) - trace.y(0));
+        resampled.set(0, trace.x(0), trace.y(0));
+        for (int k = 1; k < count - 1; k++) {
+            double target = k * step;
+            while (travelled + segment < target && i < n - 2) {
+                travelled += segment;
+                i++;
+                segment = Math.hypot(trace.x(i + 1) - trace.x(i), trace.y(i + 1) - trace.y(i));
+            }
+            double ratio = (segment > 0) ? Math.min(1, (target - travelled) / segment) : 0;
+            resampled.set(k,
+                    trace.x(i) + (trace.x(i + 1) - trace.x(i)) * ratio,
+                    trace.y(i) + (trace.y(i + 1) - trace.y(i)) * ratio);
+        }
+        resampled.set(count - 1, trace.x(n - 1), trace.y(n - 1));
+        return resampled;
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.demo_lignedroite;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Score par lots, sans interface graphique : lit un fichier de tracés (CSV ou JSON lines,
+ * un tracé par ligne, voir TraceRecordParser ; ou corpus binaire .trc, voir TraceCorpus),
+ * les note avec les mêmes options que les cases à cocher de l'interface et écrit un résultat
+ * CSV par tracé, au fil de l'eau.
+ * <p>
+ * Le fichier est lu en flux et au plus {@code workers * IN_FLIGHT_PER_WORKER} tracés sont en
+ * mémoire à la fois : la taille du corpus n'est pas limitée. Les résultats sont écrits dans
+ * l'ordre du fichier d'entrée ; une ligne mal formée produit une ligne d'erreur, pas un arrêt.
+ * <pre>
+ * java -cp ... com.example.demo_lignedroite.BatchScorer --input traces.jsonl --output scores.csv
+ *      [--format csv|jsonl|binary] [--workers N] [--angle] [--smoothing] [--resampling]
+ *      [--model x1,y1,x2,y2] [--recognize K] [--verbose] [--metrics]
+ * </pre>
+ * {@code --metrics} imprime à la fin les latences par phase et les compteurs (ScoringMetrics).
+ * {@code --recognize K} compare aussi chaque tracé à la bibliothèque standard de ShapeRecognizer :
+ * une colonne « matches » donne ses K meilleurs modèles ({@code nom:score} séparés par « ; »).
+ * {@code --resampling} (ancien nom accepté : {@code --subsampling}) rééchantillonne les tracés le long de la courbe.
+ */
+public class BatchScorer {
+
+    // Tracés en cours de calcul ou en attente d'écriture, par worker
+    private static final int IN_FLIGHT_PER_WORKER = 4;
+
+    // Fréquence des messages de progression (en tracés)
+    private static final long PROGRESS_INTERVAL = 10_000;
+
+    private static final String HEADER = "id,points,score,frechetDistance,angle,scaleFactor,noisePenalty,error";
+
+    // Modèle par défaut : la ligne droite de l'interface
+    private static final Point DEFAULT_MODEL_START = new Point(200, 50);
+    private static final Point DEFAULT_MODEL_END = new Point(50, 50);
+
+    private final TraceRecordParser.Format format;
+    private final TraceScorer scorer;
+    private final int workers;
+    private final ShapeRecognizer recognizer; // null : pas de colonne « matches »
+    private final int matchCount;
+
+    public BatchScorer(TraceRecordParser.Format format, TraceScorer scorer, int workers) {
+        this(format, scorer, workers, null, 0);
+    }
+
+    /**
+     * @param recognizer Bibliothèque de modèles à comparer à chaque tracé (null : aucune).
+     * @param matchCount Nombre de modèles retenus par tracé.
+     */
+    public BatchScorer(TraceRecordParser.Format format, TraceScorer scorer, int workers,
+                       ShapeRecognizer recognizer, int matchCount) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Le nombre de workers doit être au moins 1 : " + workers);
+        }
+        if (recognizer != null && matchCount < 1) {
+            throw new IllegalArgumentException("Le nombre de modèles retenus doit être au moins 1 : " + matchCount);
+        }
+        this.format = format;
+        this.scorer = scorer;
+        this.workers = workers;
+        this.recognizer = recognizer;
+        this.matchCount = matchCount;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path input = null;
+        Path output = null;
+        TraceRecordParser.Format format = null;
+        int workers = Runtime.getRuntime().availableProcessors();
+        boolean anglePenalty = false, smoothing = false, resampling = false, verbose = false, metrics = false;
+        int recognize = 0;
+        Point modelStart = DEFAULT_MODEL_START, modelEnd = DEFAULT_MODEL_END;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--input" -> input = Path.of(valueOf(args, ++i));
+                case "--output" -> output = Path.of(valueOf(args, ++i));
+                case "--format" -> format = TraceRecordParser.Format.valueOf(valueOf(args, ++i).toUpperCase(Locale.ROOT));
+                case "--workers" -> workers = Integer.parseInt(valueOf(args, ++i));
+                case "--angle" -> anglePenalty = true;
+                case "--smoothing" -> smoothing = true;
+                case "--resampling", "--subsampling" -> resampling = true;
+                case "--verbose" -> verbose = true;
+                case "--metrics" -> metrics = true;
+                case "--recognize" -> recognize = Integer.parseInt(valueOf(args, ++i));
+                case "--model" -> {
+                    String[] c = valueOf(args, ++i).split(",");
+                    if (c.length != 4) {
+                        throw new IllegalArgumentException("--model attend x1,y1,x2,y2");
+                    }
+                    modelStart = new Point(Double.parseDouble(c[0]), Double.parseDouble(c[1]));
+                    modelEnd = new Point(Double.parseDouble(c[2]), Double.parseDouble(c[3]));
+                }
+                default -> throw new IllegalArgumentException("Option inconnue : " + args[i]);
+            }
+        }
+        if (input == null || output == null) {
+            System.err.println("Usage : BatchScorer --input <fichier> --output <fichier.csv> [--format csv|jsonl|binary]"
+                    + " [--workers N] [--angle] [--smoothing] [--resampling] [--model x1,y1,x2,y2] [--recognize K]"
+                    + " [--verbose] [--metrics]");
+            System.exit(2);
+        }
+        if (format == null) {
+            format = TraceRecordParser.formatOf(input.getFileName().toString());
+        }
+
+        // Les calculs écrivent leur trace sur la console : inutile (et coûteux) sur un corpus entier
+        ScoringMetrics.setConsoleOutput(verbose);
+
+        TraceScorer scorer = new TraceScorer(modelStart, modelEnd,
+                new TraceScorer.Options(anglePenalty, smoothing, resampling));
+        long start = System.nanoTime();
+        ShapeRecognizer recognizer = (recognize > 0) ? ShapeRecognizer.standardLibrary() : null;
+        long count = new BatchScorer(format, scorer, workers, recognizer, recognize).run(input, output);
+
+        System.err.printf(Locale.ROOT, "%d tracés notés en %.1f s -> %s%n",
+                count, (System.nanoTime() - start) / 1e9, output);
+        if (metrics) {
+            System.err.print(ScoringMetrics.global().snapshot().format());
+        }
+    }
+
+    private static String valueOf(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Valeur manquante pour " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * Note tous les tracés de {@code input} et écrit les résultats dans {@code output}.
+     * @return Le nombre de tracés traités (erreurs comprises).
+     */
+    public long run(Path input, Path output) throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write(recognizer == null ? HEADER : HEADER + ",matches");
+            writer.newLine();
+
+            OrderedOutput results = new OrderedOutput(writer, executor, workers * IN_FLIGHT_PER_WORKER);
+            if (format == TraceRecordParser.Format.BINARY) {
+                scoreCorpus(input, results);
+            } else {
+                scoreLines(input, results);
+            }
+            results.drain();
+            return results.count;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void scoreLines(Path input, OrderedOutput results) throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (TraceRecordParser.isSkipped(line, format)) {
+                    continue;
+                }
+
+                String record = line;
+                long number = lineNumber;
+                results.submit(() -> scoreLine(record, number));
+            }
+        }
+    }
+
+    private void scoreCorpus(Path input, OrderedOutput results) throws IOException, InterruptedException {
+        // Le corpus reste projeté jusqu'à ce que tous les tracés soumis aient été décodés
+        try (TraceCorpus corpus = TraceCorpus.open(input)) {
+            for (long i = 0; i < corpus.size(); i++) {
+                long index = i;
+                results.submit(() -> scoreTrace(corpus.id(index), corpus.read(index)));
+            }
+            results.drain();
+        }
+    }
+
+    /**
+     * Résultats écrits dans l'ordre de soumission, avec au plus {@code maxInFlight} tracés en attente.
+     */
+    private static final class OrderedOutput {
+        private final BufferedWriter writer;
+        private final ExecutorService executor;
+        private final int maxInFlight;
+        private final Deque<Future<String>> pending = new ArrayDeque<>();
+        private long count = 0;
+
+        OrderedOutput(BufferedWriter writer, ExecutorService executor, int maxInFlight) {
+            this.writer = writer;
+            this.executor = executor;
+            this.maxInFlight = maxInFlight;
+        }
+
+        void submit(Callable<String> task) throws IOException, InterruptedException {
+            pending.addLast(executor.submit(task));
+            count++;
+
+            // Fenêtre pleine : on attend le plus ancien résultat (l'ordre du fichier est conservé)
+            if (pending.size() >= maxInFlight) {
+                write(pending.removeFirst());
+            }
+            while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+                write(pending.removeFirst());
+            }
+
+            if (count % PROGRESS_INTERVAL == 0) {
+                System.err.println(count + " tracés lus...");
+            }
+        }
+
+        void drain() throws IOException, InterruptedException {
+            while (!pending.isEmpty()) {
+                write(pending.removeFirst());
+            }
+        }
+
+        private void write(Future<String> result) throws IOException, InterruptedException {
+            try {
+                writer.write(result.get());
+                writer.newLine();
+            } catch (ExecutionException e) {
+                // Les tâches capturent déjà les erreurs de données : ceci est une erreur de programmation
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Lit et note une ligne ; toute erreur devient une ligne de résultat avec la colonne « error ».
+     */
+    private String scoreLine(String line, long lineNumber) {
+        TraceRecordParser.TraceRecord record;
+        try {
+            record = TraceRecordParser.parse(line, lineNumber, format);
+        } catch (RuntimeException e) {
+            return row(Long.toString(lineNumber), 0, null, null, e.getMessage());
+        }
+        return scoreTrace(record.id(), record.trace());
+    }
+
+    /**
+     * Note un tracé ; toute erreur devient une ligne de résultat avec la colonne « error ».
+     */
+    private String scoreTrace(String id, Trace trace) {
+        int points = trace.size();
+        if (points < 2) {
+            return row(id, points, null, null, "Moins de 2 points");
+        }
+        try {
+            ShapeRecognizer.Recognition recognition =
+                    (recognizer != null) ? recognizer.recognize(trace, matchCount) : null;
+            return row(id, points, scorer.score(trace), recognition, "");
+        } catch (RuntimeException e) {
+            return row(id, points, null, null, e.getMessage());
+        }
+    }
+
+    private String row(String id, int points, TraceScorer.Score score, ShapeRecognizer.Recognition recognition,
+                       String error) {
+        String row;
+        if (score == null) {
+            row = csv(id) + "," + points + ",,,,,," + csv(error);
+        } else {
+            row = String.format(Locale.ROOT, "%s,%d,%.4f,%.6f,%.4f,%.6f,%s,",
+                    csv(id), points, score.score(), score.bestFrechetDistance(), score.Angle(), score.scaleFactor(),
+                    Double.isNaN(score.noisePenalty()) ? "" : String.format(Locale.ROOT, "%.6f", score.noisePenalty()));
+        }
+        return (recognizer == null) ? row : row + "," + csv(matches(recognition));
+    }
+
+    /**
+     * Colonne « matches » : {@code nom:score} des meilleurs modèles, séparés par « ; ».
+     */
+    private static String matches(ShapeRecognizer.Recognition recognition) {
+        if (recognition == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (ShapeRecognizer.Match match : recognition.matches()) {
+            if (!text.isEmpty()) {
+                text.append(';');
+            }
+            text.append(String.format(Locale.ROOT, "%s:%.2f", match.name(), match.score()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Échappement CSV (guillemets si la valeur contient une virgule, un guillemet ou un saut de ligne).
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
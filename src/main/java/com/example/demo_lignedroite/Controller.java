@@ -1,10 +1,12 @@
 package com.example.demo_lignedroite;
 
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
@@ -13,6 +15,9 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 // Définition de la classe simple pour stocker les coordonnées (Utilisation d'un Record si Java 16+)
 record Point(double x, double y) {}
@@ -26,6 +31,7 @@ public class Controller implements Initializable {
     @FXML private Button ScoringButton;
     @FXML private Label statusLabel;
     @FXML private Label scoreLabel;
+    @FXML private ProgressIndicator scoringProgress;
     @FXML private Label T1;
     @FXML private Label T2;
     @FXML private Label T3;
@@ -39,17 +45,29 @@ public class Controller implements Initializable {
     @FXML private CheckBox checkboxSmoothing;
     @FXML private CheckBox checkboxLimite;
     @FXML private CheckBox checkboxNbrePoints;
+    @FXML private CheckBox checkboxLive;
 
 
     // --- Logique de Dessin et Modèle ---
     private boolean isDrawingActive = false;
     private Polyline currentStroke;
+    private LiveScorer liveScorer; // Score provisoire du tracé en cours (mode « en direct »)
     private List<Point> idealPoints; // Courbe P (Modèle)
     private double ratio;
     double startX = 200;
     double startY = 50;
     double endX = 50; // Basé sur prefWidth=300 du FXML
     double endY = 50;
+
+    // --- Calcul du score en arrière-plan ---
+    // Threads démons : un calcul en cours n'empêche pas la fermeture de l'application
+    private final ExecutorService scoringExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "scoring");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final List<Task<TraceScorer.Score>> runningTasks = new ArrayList<>(); // Accédée sur le thread FX uniquement
     // ==========================================================
     // INITIALISATION
     // ==========================================================
@@ -90,17 +108,7 @@ public class Controller implements Initializable {
      * Génère une liste de points uniformément espacés pour définir la ligne droite idéale.
      */
     private List<Point> generateLinePoints(double x1, double y1, double x2, double y2, int count) {
-        List<Point> points = new ArrayList<>();
-
-        for (int i = 0; i < count; i++) {
-            double ratio = (double) i / (count - 1);
-            // Interpolation linéaire
-            double x = x1 + (x2 - x1) * ratio;
-            double y = y1 + (y2 - y1) * ratio;
-
-            points.add(new Point(x, y));
-        }
-        return points;
+        return TraceScorer.generateLineTrace(x1, y1, x2, y2, count).toPoints();
     }
 
     // ==========================================================
@@ -109,6 +117,9 @@ public class Controller implements Initializable {
 
     @FXML
     private void handleActivateDrawing() {
+        // Un nouveau dessin rend obsolètes les calculs en cours
+        cancelScoring();
+
         currentStroke = null;
         isDrawingActive = true;
         updateStatus();
@@ -135,21 +146,25 @@ public class Controller implements Initializable {
 
         // Lancer le calcul du score si un tracé a été fait
         if (currentStroke != null && currentStroke.getPoints().size() >= 4) {
-            // 1. Préparer les points du tracé utilisateur (Q)
-            List<Point> userPoints = new ArrayList<>();
-            List<Double> rawPoints = currentStroke.getPoints();
-
-            for (int i = 0; i < rawPoints.size(); i += 2) {
-                userPoints.add(new Point(rawPoints.get(i), rawPoints.get(i + 1)));
-            }
-
+            // Un nouveau clic remplace le calcul précédent
+            cancelScoring();
+            scoreLabel.setText("Calcul...");
+            startScoring(strokePoints(), score -> displayResults(score, scoreLabel, Color.BLACK, 0.0), scoreLabel);
+        }
 
-            Score score = calculateScore(userPoints);
-            displayResults(score,scoreLabel,Color.BLACK,0.0);
+    }
 
+    /**
+     * Points du tracé utilisateur (Q) courant.
+     */
+    private List<Point> strokePoints() {
+        List<Point> userPoints = new ArrayList<>();
+        List<Double> rawPoints = currentStroke.getPoints();
 
+        for (int i = 0; i < rawPoints.size(); i += 2) {
+            userPoints.add(new Point(rawPoints.get(i), rawPoints.get(i + 1)));
         }
-
+        return userPoints;
     }
 
     /**
@@ -184,102 +199,109 @@ public class Controller implements Initializable {
 
         // Ajouter le trait au canevas
         drawingPane.getChildren().add(currentStroke);
+
+        // Mode en direct : score provisoire mis à jour à chaque point
+        liveScorer = checkboxLive.isSelected()
+                ? new LiveScorer(new Point(startX, startY), new Point(endX, endY), createOptions())
+                : null;
+        updateLiveScore(event);
     }
 
     private void handleMouseDragged(MouseEvent event) {
         if (currentStroke != null) {
             // Ajouter les coordonnées X et Y à la liste des points de la Polyline
             currentStroke.getPoints().addAll(event.getX(), event.getY());
+            updateLiveScore(event);
         }
     }
 
     private void handleMouseReleased(MouseEvent event) {
-        // Le tracé est fini.
+        // Le tracé est fini. En mode en direct, le score définitif (identique au bouton Scoring)
+        // remplace le score provisoire.
+        if (liveScorer != null && currentStroke != null && currentStroke.getPoints().size() >= 4) {
+            liveScorer = null;
+            cancelScoring();
+            startScoring(strokePoints(), score -> displayResults(score, scoreLabel, Color.BLACK, 0.0), scoreLabel);
+        }
     }
 
+    private void updateLiveScore(MouseEvent event) {
+        if (liveScorer == null) return;
 
-
-
-    // ==========================================================
-    // CALCUL ET AFFICHAGE DU SCORE (Distance de Fréchet)
-    // ==========================================================
-    public record Score(
-            double Angle,
-            double bestFrechetDistance,
-            double scaleFactor,
-            double score,
-            List<Point> rotatedPoints
-    ) {}
-
-    @FXML
-    private Score calculateScore(List<Point> userPoints) {
-
-        if (checkboxNbrePoints.isSelected()) {
-            List<Point> newPoints = new ArrayList<>();
-            for (int i = 0; i < userPoints.size(); i += 4) {
-                newPoints.add(userPoints.get(i));
-            }
-            userPoints = newPoints;
+        double score = liveScorer.addPoint(event.getX(), event.getY());
+        if (!Double.isNaN(score)) {
+            scoreLabel.setText(String.format("Score provisoire: %.1f/100 | Distance: %.2f px | Angle: %.1f°",
+                    score, liveScorer.distance(), liveScorer.normalizedAngle()));
         }
+    }
 
-        int NEW_POINT_COUNT = userPoints.size();
-        idealPoints = generateLinePoints(startX, startY, endX, endY, NEW_POINT_COUNT);
-
-
-
-        // 1bis on lance l'optimisation (UserPoints n'est pas normalisé)
-        PathRotationOptimizer PRO = new PathRotationOptimizer();
-        PathRotationOptimizer.RotationResult AfterRotation = PRO.findOptimalRotation(userPoints,idealPoints);
-
-        // 2. Calculer la Distance de Fréchet
-        double frechetDistance = AfterRotation.bestFrechetDistance();
-        System.out.println(frechetDistance);
-        System.out.println(AfterRotation.bestAngle());
-
-        // 3. Normaliser la distance pour obtenir un score (0 à 100)
 
-        // Calculer la longueur de la diagonale idéale pour définir d_max
-        Point pStart = idealPoints.get(0);
-        Point pEnd = idealPoints.get(idealPoints.size() - 1);
-        double diagonalLength = euclideanDistance(pStart, pEnd);
 
-        // On fixe une distance maximale d_max comme étant 25% de la longueur idéale
-        double d_max = diagonalLength/4;
-        System.out.println("dmax="+d_max);
 
-        // Normalisation et calcul du score
-        double normalizedDistance = Math.min(frechetDistance, d_max);
-        double score = 100.0 * (1.0 - (normalizedDistance / d_max));
+    // ==========================================================
+    // CALCUL ET AFFICHAGE DU SCORE (Distance de Fréchet)
+    // ==========================================================
+    /**
+     * Le calcul lui-même est délégué à TraceScorer, avec les options des cases à cocher
+     * (lues ici, sur le thread FX, avant de partir en arrière-plan).
+     */
+    private TraceScorer createScorer() {
+        return new TraceScorer(new Point(startX, startY), new Point(endX, endY), createOptions());
+    }
 
-        // S'assurer que le score est entre 0 et 100
-        score = Math.max(0, Math.min(100, score));
+    private TraceScorer.Options createOptions() {
+        return new TraceScorer.Options(
+                checkboxAngle.isSelected(),
+                checkboxSmoothing.isSelected(),
+                checkboxNbrePoints.isSelected());
+    }
 
-        if (checkboxAngle.isSelected()){
-            if (AfterRotation.NormalizedAngle()>10 & AfterRotation.NormalizedAngle()<170){
-                score=score-(10* AfterRotation.NormalizedAngle()/180);
+    /**
+     * Lance le calcul du score en arrière-plan ; {@code onScored} est appelé sur le thread FX
+     * à la fin du calcul (jamais s'il est annulé). Une erreur est affichée dans {@code errorLabel}.
+     */
+    private void startScoring(List<Point> userPoints, Consumer<TraceScorer.Score> onScored, Label errorLabel) {
+        TraceScorer scorer = createScorer();
+        Task<TraceScorer.Score> task = new Task<>() {
+            @Override
+            protected TraceScorer.Score call() {
+                return scorer.score(userPoints);
             }
+        };
+
+        task.setOnSucceeded(event -> {
+            finishTask(task);
+            onScored.accept(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            finishTask(task);
+            errorLabel.setText("Erreur : " + task.getException().getMessage());
+        });
+        task.setOnCancelled(event -> {
+            finishTask(task);
+            errorLabel.setText("Annulé");
+        });
+
+        runningTasks.add(task);
+        scoringProgress.setVisible(true);
+        scoringExecutor.submit(task);
+    }
 
-        }
-
-        if (checkboxSmoothing.isSelected()){
-            DouglasPeuckerAnalyzer.AnalysisResult result =
-                    DouglasPeuckerAnalyzer.analyze(AfterRotation.rotatedPoints(), 1);
-            List<Point> simplifiedQ = result.simplifiedPoints();
-            double noisePenalty = result.totalPenalty();
-
-            System.out.println("Pénalité de bruit totale (somme des écarts) : " + noisePenalty);
-
-
-
-        }
-
-        if (checkboxLimite.isSelected()){
+    private void finishTask(Task<TraceScorer.Score> task) {
+        runningTasks.remove(task);
+        scoringProgress.setVisible(!runningTasks.isEmpty());
+    }
 
+    /**
+     * Annule tous les calculs en cours (le thread de calcul est interrompu, voir PathRotationOptimizer).
+     */
+    private void cancelScoring() {
+        for (Task<TraceScorer.Score> task : new ArrayList<>(runningTasks)) {
+            task.cancel();
         }
-    return new Score(AfterRotation.NormalizedAngle(), frechetDistance, AfterRotation.scaleFactor(),score, AfterRotation.rotatedPoints());
     }
 
-    private void displayResults(Score score, Label label, Color color, Double Offset) {
+    private void displayResults(TraceScorer.Score score, Label label, Color color, Double Offset) {
 
         List<Point> pointsDecales = new ArrayList<>();
 
@@ -320,16 +342,12 @@ public class Controller implements Initializable {
     }
 
     /**
-     * Calcule la distance euclidienne entre deux points (utilitaire pour la normalisation).
+     * Les six scénarios sont calculés en parallèle ; chacun s'affiche dès qu'il est terminé.
      */
-    private double euclideanDistance(Point p1, Point p2) {
-        double dx = p1.x() - p2.x();
-        double dy = p1.y() - p2.y();
-        return Math.sqrt(dx * dx + dy * dy);
-    }
-
     @FXML
     private void Test() {
+        cancelScoring();
+
         final List<Color> couleurs = List.of(
                 Color.RED,
                 Color.PURPLE,
@@ -349,8 +367,8 @@ public class Controller implements Initializable {
                 new Point(5, 50), new Point(55, 50), // Petit trait de 50 de long
                 numSteps, 90.0
         );
-        Score Test1 = calculateScore(userPath_Rotated90);
-        displayResults(Test1,T1,couleurs.get(0),50.0);
+        T1.setText("Calcul...");
+        startScoring(userPath_Rotated90, score -> displayResults(score, T1, couleurs.get(0), 50.0), T1);
 
 
         //--- SCÉNARIO 2 : Ligne de même taille mais inversée et bruité
@@ -359,8 +377,8 @@ public class Controller implements Initializable {
                 new Point(110, 50), new Point(10, 50), // Sens inversé
                 numSteps, 2 // Bruit de 0.5 unité
         );
-        Score Test2 = calculateScore(userPath_ReversedNoisy);
-        displayResults(Test2,T2,couleurs.get(1),100.0);
+        T2.setText("Calcul...");
+        startScoring(userPath_ReversedNoisy, score -> displayResults(score, T2, couleurs.get(1), 100.0), T2);
 
         //--- SCÉNARIO 3 : ligne courbé
         // Crée une ligne
@@ -368,8 +386,8 @@ public class Controller implements Initializable {
                 new Point(110, 50), new Point(10, 80),
                 numSteps, 15
         );
-        Score Test3 = calculateScore(userPath_curved);
-        displayResults(Test3,T3,couleurs.get(2),150.0);
+        T3.setText("Calcul...");
+        startScoring(userPath_curved, score -> displayResults(score, T3, couleurs.get(2), 150.0), T3);
 
         //--- SCÉNARIO 4 : Ligne sinusoidale
 
@@ -377,8 +395,8 @@ public class Controller implements Initializable {
                 new Point(110, 50), new Point(10, 50), // Sens inversé
                 numSteps, 130,1 // Bruit de 0.5 unité
         );
-        Score Test4 = calculateScore(userPath_sin);
-        displayResults(Test4,T4,couleurs.get(3),200.0);
+        T4.setText("Calcul...");
+        startScoring(userPath_sin, score -> displayResults(score, T4, couleurs.get(3), 200.0), T4);
 
         //--- SCÉNARIO 5 : Ligne sinusoidale
 
@@ -386,8 +404,8 @@ public class Controller implements Initializable {
                 new Point(110, 50), new Point(10, 50), // Sens inversé
                 numSteps, 4,2 // Bruit de 0.5 unité
         );
-        Score Test5 = calculateScore(userPath_dents);
-        displayResults(Test5,T5,couleurs.get(4),250.0);
+        T5.setText("Calcul...");
+        startScoring(userPath_dents, score -> displayResults(score, T5, couleurs.get(4), 250.0), T5);
 
         //--- SCÉNARIO 6 : Ligne retour en arrière
 
@@ -395,8 +413,8 @@ public class Controller implements Initializable {
                 new Point(110, 50), new Point(10, 50), // Sens inversé
                 numSteps, 20 // Bruit de 0.5 unité
         );
-        Score Test6 = calculateScore(userPath_s);
-        displayResults(Test6,T6,couleurs.get(5),300.0);
+        T6.setText("Calcul...");
+        startScoring(userPath_s, score -> displayResults(score, T6, couleurs.get(5), 300.0), T6);
 
     }
 
@@ -0,0 +1,214 @@
+package com.example.demo_lignedroite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estimation de l'angle par histogrammes de directions.
+ * Chaque segment d'un tracé vote pour sa direction, pondéré par sa longueur. Tourner un tracé
+ * de θ décale circulairement son histogramme de θ : l'angle cherché est donc le pic de la
+ * corrélation croisée circulaire des deux histogrammes, calculée par FFT en O(B log B)
+ * (B = nombre de cases), sans aucune rotation de points ni calcul de Fréchet.
+ */
+public class DirectionHistogramEstimator implements AngleEstimator {
+
+    // Nombre de cases de l'histogramme (puissance de 2 pour la FFT) : ~0.7° par case
+    private static final int DEFAULT_BINS = 512;
+
+    // Un pic secondaire n'est proposé que s'il atteint cette fraction du pic principal
+    private static final double SECONDARY_PEAK_RATIO = 0.5;
+
+    private final int bins;
+
+    public DirectionHistogramEstimator() {
+        this(DEFAULT_BINS);
+    }
+
+    /**
+     * @param bins Nombre de cases de l'histogramme, puissance de 2.
+     */
+    public DirectionHistogramEstimator(int bins) {
+        if (bins < 4 || Integer.bitCount(bins) != 1) {
+            throw new IllegalArgumentException("Le nombre de cases doit être une puissance de 2 : " + bins);
+        }
+        this.bins = bins;
+    }
+
+    /**
+     * Propose le pic principal de corrélation (et un éventuel pic secondaire marqué).
+     * Parcourir le tracé à l'envers ajoute 180° à chaque direction : le candidat de
+     * l'orientation inversée est donc le même angle + 180°, sans second calcul.
+     * La confiance combine la corrélation normalisée du pic et sa dominance sur le pic suivant.
+     */
+    @Override
+    public List<AngleCandidate> estimate(Trace centeredUser, Trace reversedUser, Trace centeredModel) {
+        List<AngleCandidate> candidates = new ArrayList<>();
+
+        double[] userHistogram = directionHistogram(centeredUser);
+        double[] modelHistogram = directionHistogram(centeredModel);
+        double norm = Math.sqrt(dot(userHistogram, userHistogram) * dot(modelHistogram, modelHistogram));
+        if (norm == 0) {
+            return candidates; // Tracé dégénéré (tous les points confondus)
+        }
+
+        double[] correlation = circularCrossCorrelation(modelHistogram, userHistogram);
+
+        // Deux plus hauts maxima locaux de la corrélation circulaire
+        int first = -1, second = -1;
+        for (int k = 0; k < bins; k++) {
+            double value = correlation[k];
+            if (value < correlation[(k - 1 + bins) % bins] || value < correlation[(k + 1) % bins]) {
+                continue;
+            }
+            if (first < 0 || value > correlation[first]) {
+                second = first;
+                first = k;
+            } else if (second < 0 || value > correlation[second]) {
+                second = k;
+            }
+        }
+
+        double peak = correlation[first];
+        double secondPeak = (second >= 0) ? Math.max(0, correlation[second]) : 0;
+        double dominance = (peak > 0) ? 1 - secondPeak / peak : 0;
+
+        addCandidates(candidates, interpolatedPeak(correlation, first), (peak / norm) * dominance);
+        if (second >= 0 && secondPeak >= SECONDARY_PEAK_RATIO * peak) {
+            addCandidates(candidates, interpolatedPeak(correlation, second), (secondPeak / norm) * dominance);
+        }
+
+        return candidates;
+    }
+
+    private void addCandidates(List<AngleCandidate> candidates, double angle, double confidence) {
+        candidates.add(new AngleCandidate(normalizeAngle(angle), false, confidence, "FFT"));
+        candidates.add(new AngleCandidate(normalizeAngle(angle + 180), true, confidence, "FFT"));
+    }
+
+    /**
+     * Histogramme circulaire des directions des segments, pondéré par leur longueur.
+     * Chaque vote est réparti linéairement entre les deux cases voisines.
+     */
+    private double[] directionHistogram(Trace points) {
+        double[] histogram = new double[bins];
+        double binWidth = 360.0 / bins;
+
+        for (int i = 1; i < points.size(); i++) {
+            double dx = points.x(i) - points.x(i - 1);
+            double dy = points.y(i) - points.y(i - 1);
+            double length = Math.hypot(dx, dy);
+            if (length == 0) {
+                continue;
+            }
+
+            double position = normalizeAngle(Math.toDegrees(Math.atan2(dy, dx))) / binWidth;
+            int lower = (int) Math.floor(position);
+            double fraction = position - lower;
+
+            histogram[lower % bins] += length * (1 - fraction);
+            histogram[(lower + 1) % bins] += length * fraction;
+        }
+        return histogram;
+    }
+
+    /**
+     * Corrélation croisée circulaire c[k] = Σ_b a[b + k] · b[b], via FFT : c = IFFT(A · conj(B)).
+     * c[k] mesure l'accord entre a et b décalé de k cases, i.e. tourné de k · (360 / B) degrés.
+     */
+    private double[] circularCrossCorrelation(double[] a, double[] b) {
+        double[] aRe = a.clone(), aIm = new double[bins];
+        double[] bRe = b.clone(), bIm = new double[bins];
+        fft(aRe, aIm, false);
+        fft(bRe, bIm, false);
+
+        for (int k = 0; k < bins; k++) {
+            // (aRe + i aIm) * (bRe - i bIm)
+            double re = aRe[k] * bRe[k] + aIm[k] * bIm[k];
+            double im = aIm[k] * bRe[k] - aRe[k] * bIm[k];
+            aRe[k] = re;
+            aIm[k] = im;
+        }
+
+        fft(aRe, aIm, true);
+        return aRe;
+    }
+
+    /**
+     * Position du pic en degrés, affinée par interpolation parabolique sur les cases voisines.
+     */
+    private double interpolatedPeak(double[] correlation, int k) {
+        double left = correlation[(k - 1 + bins) % bins];
+        double center = correlation[k];
+        double right = correlation[(k + 1) % bins];
+
+        double denominator = left - 2 * center + right;
+        double offset = (denominator != 0) ? 0.5 * (left - right) / denominator : 0;
+
+        return (k + offset) * 360.0 / bins;
+    }
+
+    /**
+     * FFT radix-2 itérative, en place. L'inverse est normalisée par 1 / N.
+     */
+    private static void fft(double[] re, double[] im, boolean inverse) {
+        int n = re.length;
+
+        // Permutation par inversion des bits
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+
+        // Papillons
+        for (int length = 2; length <= n; length <<= 1) {
+            double angle = 2 * Math.PI / length * (inverse ? 1 : -1);
+            double wRe = Math.cos(angle);
+            double wIm = Math.sin(angle);
+
+            for (int start = 0; start < n; start += length) {
+                double curRe = 1, curIm = 0;
+                for (int k = 0; k < length / 2; k++) {
+                    int even = start + k;
+                    int odd = even + length / 2;
+
+                    double tRe = re[odd] * curRe - im[odd] * curIm;
+                    double tIm = re[odd] * curIm + im[odd] * curRe;
+                    re[odd] = re[even] - tRe;
+                    im[odd] = im[even] - tIm;
+                    re[even] += tRe;
+                    im[even] += tIm;
+
+                    double nextRe = curRe * wRe - curIm * wIm;
+                    curIm = curRe * wIm + curIm * wRe;
+                    curRe = nextRe;
+                }
+            }
+        }
+
+        if (inverse) {
+            for (int i = 0; i < n; i++) {
+                re[i] /= n;
+                im[i] /= n;
+            }
+        }
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static double normalizeAngle(double angle) {
+        return ((angle % 360) + 360) % 360;
+    }
+}
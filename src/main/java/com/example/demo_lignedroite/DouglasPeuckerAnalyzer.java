@@ -2,7 +2,10 @@ package com.example.demo_lignedroite;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class DouglasPeuckerAnalyzer {
 
@@ -13,122 +16,247 @@ public class DouglasPeuckerAnalyzer {
 
 
     // --- 1. FONCTIONS GÉOMÉTRIQUES DE BASE ---
+    // (sur coordonnées primitives : aucune allocation de Point dans les boucles)
 
     /**
      * Calcule le carré de la distance euclidienne entre deux points.
      */
-    private static double distanceSq(Point p1, Point p2) {
-        double dx = p1.x() - p2.x();
-        double dy = p1.y() - p2.y();
+    private static double distanceSq(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
         return dx * dx + dy * dy;
     }
 
     /**
      * Calcule la distance orthogonale d'un point P à la DROITE infinie définie par les points A et B.
      * C'est la métrique clé pour l'algorithme Douglas-Peucker.
-     * @param p Le point.
-     * @param a Point de début de la ligne.
-     * @param b Point de fin de la ligne.
      * @return La distance.
      */
-    private static double distancePointToLine(Point p, Point a, Point b) {
-        double area = Math.abs((a.x() * b.y() + b.x() * p.y() + p.x() * a.y()) -
-                (a.y() * b.x() + b.y() * p.x() + p.y() * a.x()));
-        double base = Math.sqrt(distanceSq(a, b));
+    static double distancePointToLine(double px, double py, double ax, double ay, double bx, double by) {
+        double area = Math.abs((ax * by + bx * py + px * ay) -
+                (ay * bx + by * px + py * ax));
+        double base = Math.sqrt(distanceSq(ax, ay, bx, by));
 
         // Formule pour l'aire d'un triangle : 0.5 * base * hauteur (hauteur = distance)
         // Distance = 2 * Aire / Base
-        return (base == 0) ? Math.sqrt(distanceSq(p, a)) : area / base;
+        return (base == 0) ? Math.sqrt(distanceSq(px, py, ax, ay)) : area / base;
     }
 
     /**
      * Calcule la distance minimale d'un point P à un SEGMENT de ligne [A, B].
      * (Nécessaire pour le calcul final de la pénalité)
      */
-    private static double distancePointToSegment(Point p, Point a, Point b) {
-        double segmentLengthSq = distanceSq(a, b);
+    static double distancePointToSegment(double px, double py, double ax, double ay, double bx, double by) {
+        double segmentLengthSq = distanceSq(ax, ay, bx, by);
 
         if (segmentLengthSq == 0.0) {
-            return Math.sqrt(distanceSq(p, a));
+            return Math.sqrt(distanceSq(px, py, ax, ay));
         }
 
         // Calcule le facteur de projection t (0 <= t <= 1 si la projection est sur le segment)
-        double t = ((p.x() - a.x()) * (b.x() - a.x()) + (p.y() - a.y()) * (b.y() - a.y())) / segmentLengthSq;
+        double t = ((px - ax) * (bx - ax) + (py - ay) * (by - ay)) / segmentLengthSq;
 
         // Limite t à [0, 1] pour rester sur le segment
         t = Math.max(0, Math.min(1, t));
 
         // Point projeté sur le segment
-        double h_x = a.x() + t * (b.x() - a.x());
-        double h_y = a.y() + t * (b.y() - a.y());
+        double h_x = ax + t * (bx - ax);
+        double h_y = ay + t * (by - ay);
 
-        Point h = new Point(h_x, h_y);
-
-        return Math.sqrt(distanceSq(p, h));
+        return Math.sqrt(distanceSq(px, py, h_x, h_y));
     }
 
 
-    // --- 2. ALGORITHME DE SIMPLIFICATION DOUGLAS-PEUCKER (Récursif) ---
+    // --- 2. ALGORITHME DE SIMPLIFICATION DOUGLAS-PEUCKER (Pile explicite) ---
+
+    // Au-delà de ce nombre de points, analyze() répartit les sous-parties sur le pool fork-join
+    static final int PARALLEL_THRESHOLD = 1 << 15;
 
     /**
      * Coeur de l'algorithme Douglas-Peucker.
+     * Marque dans {@code keep} les indices des points conservés (le point final est géré par l'appelant).
+     * <p>
+     * Les sous-parties à traiter sont gardées dans une pile explicite et non sur la pile
+     * d'appels : la profondeur de récursion peut atteindre n sur un tracé en spirale ou en dents
+     * de scie, ce qui provoquait un StackOverflowError sur les très grands tracés. Le résultat
+     * ne dépend pas de l'ordre de traitement : il est identique à la version récursive.
      */
-    private static void dpSimplify(List<Point> points, int first, int last, double epsilon, List<Point> resultList) {
-        double maxDistance = 0;
-        int maxIndex = 0;
+    static void dpSimplify(Trace points, int first, int last, double epsilon, boolean[] keep) {
+        simplifyRanges(points, first, last, epsilon, keep, Integer.MAX_VALUE, null);
+    }
 
-        Point start = points.get(first);
-        Point end = points.get(last);
+    /**
+     * Version parallèle de {@link #dpSimplify} : les sous-parties d'au moins {@code threshold}
+     * points sont confiées à des tâches fork-join. Chaque sous-partie ne marque que ses propres
+     * indices (de first inclus à last exclu), les tâches n'écrivent donc jamais au même endroit.
+     */
+    static void dpSimplifyParallel(Trace points, int first, int last, double epsilon, boolean[] keep,
+                                   int threshold, ForkJoinPool pool) {
+        pool.invoke(new SimplifyTask(points, first, last, epsilon, keep, threshold));
+    }
 
-        // 1. Trouver le point le plus éloigné
-        for (int i = first + 1; i < last; i++) {
-            double distance = distancePointToLine(points.get(i), start, end);
+    /**
+     * Traite la sous-partie [first, last] et toutes celles qui en découlent.
+     * @param forked Reçoit les tâches créées pour les sous-parties d'au moins {@code threshold}
+     *               points (null : tout est traité ici).
+     */
+    private static void simplifyRanges(Trace points, int first, int last, double epsilon, boolean[] keep,
+                                       int threshold, List<SimplifyTask> forked) {
+        // Pile de couples (first, last)
+        int[] stack = new int[32];
+        int top = 0;
+        stack[top++] = first;
+        stack[top++] = last;
+
+        while (top > 0) {
+            last = stack[--top];
+            first = stack[--top];
+
+            double maxDistance = 0;
+            int maxIndex = 0;
+
+            double startX = points.x(first), startY = points.y(first);
+            double endX = points.x(last), endY = points.y(last);
+
+            // 1. Trouver le point le plus éloigné
+            if (VectorKernels.ENABLED && !points.isReversedView() && last - first - 1 >= VectorKernels.MIN_BATCH) {
+                int farthest = VectorKernels.farthestFromLine(points.xArray(), points.yArray(), first + 1, last,
+                        startX, startY, endX, endY);
+                if (farthest >= 0) {
+                    maxIndex = farthest;
+                    maxDistance = distancePointToLine(points.x(farthest), points.y(farthest), startX, startY, endX, endY);
+                }
+            } else {
+                for (int i = first + 1; i < last; i++) {
+                    double distance = distancePointToLine(points.x(i), points.y(i), startX, startY, endX, endY);
+
+                    if (distance > maxDistance) {
+                        maxDistance = distance;
+                        maxIndex = i;
+                    }
+                }
+            }
 
-            if (distance > maxDistance) {
-                maxDistance = distance;
-                maxIndex = i;
+            // 2. Découpage
+            if (maxDistance > epsilon) {
+                // Le point maxIndex est significatif : on traite les deux sous-parties
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                if (forked != null && last - maxIndex >= threshold) {
+                    SimplifyTask task = new SimplifyTask(points, maxIndex, last, epsilon, keep, threshold);
+                    task.fork();
+                    forked.add(task);
+                } else {
+                    stack[top++] = maxIndex;
+                    stack[top++] = last;
+                }
+                stack[top++] = first;
+                stack[top++] = maxIndex;
+            } else {
+                // Le bruit est dans la tolérance : on garde seulement le point de début (le point de fin
+                // est géré par la sous-partie suivante ou par l'ajout initial).
+                keep[first] = true;
             }
         }
+    }
 
-        // 2. Simplification récursive
-        if (maxDistance > epsilon) {
-            // Le point maxIndex est significatif : récursion sur les deux sous-parties
-            dpSimplify(points, first, maxIndex, epsilon, resultList);
-            dpSimplify(points, maxIndex, last, epsilon, resultList);
-        } else {
-            // Le bruit est dans la tolérance : on garde seulement le point de début (le point de fin
-            // est géré par l'appel récursif suivant ou par l'ajout initial).
-            resultList.add(start);
+    /**
+     * Sous-partie [first, last] traitée par le pool fork-join (jamais sérialisée).
+     */
+    @SuppressWarnings("serial")
+    private static final class SimplifyTask extends RecursiveAction {
+        private final Trace points;
+        private final int first, last;
+        private final double epsilon;
+        private final boolean[] keep;
+        private final int threshold;
+
+        SimplifyTask(Trace points, int first, int last, double epsilon, boolean[] keep, int threshold) {
+            this.points = points;
+            this.first = first;
+            this.last = last;
+            this.epsilon = epsilon;
+            this.keep = keep;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            List<SimplifyTask> forked = new ArrayList<>();
+            simplifyRanges(points, first, last, epsilon, keep, threshold, forked);
+            for (SimplifyTask task : forked) {
+                task.join();
+            }
         }
     }
 
 
     // --- 3. CALCUL DE LA PÉNALITÉ DE BRUIT ---
 
+    // En dessous de ce nombre de segments, la recherche exhaustive est plus rapide que l'index
+    private static final int SEGMENT_INDEX_THRESHOLD = 8;
+
     /**
      * Calcule la pénalité totale : la somme des distances de chaque point
      * original au segment le plus proche de la courbe simplifiée.
+     * <p>
+     * Chaque point est d'abord comparé au segment qui l'encadre dans le tracé (connu grâce à
+     * {@code keep}, sans recherche) : cette distance d0 est presque toujours la bonne. Les seuls
+     * segments qui pourraient faire mieux coupent le carré de demi-côté d0 autour du point ; ils
+     * sont retrouvés par une grille de segments (nécessaire pour les tracés qui reviennent sur
+     * eux-mêmes). Le minimum porte sur les mêmes distances que la recherche exhaustive : la
+     * pénalité est identique, en O(n) en pratique au lieu de O(n·k).
      * @param original Le tracé utilisateur original (Q).
+     * @param keep Indices des points de Q conservés par la simplification.
      * @param simplified Le tracé simplifié (Q_simple).
      * @return La pénalité totale de bruit.
      */
-    private static double calculatePenalty(List<Point> original, List<Point> simplified) {
-        double totalPenalty = 0.0;
+    private static double calculatePenalty(Trace original, boolean[] keep, Trace simplified) {
+        int segmentCount = simplified.size() - 1;
 
         // Le tracé simplifié doit contenir au moins 2 points pour former un segment
-        if (simplified.size() < 2) return 0.0;
+        if (segmentCount < 1) return 0.0;
+        if (segmentCount < SEGMENT_INDEX_THRESHOLD) return calculatePenaltyExhaustive(original, simplified);
+
+        SegmentGrid grid = new SegmentGrid(simplified);
+        double totalPenalty = 0.0;
+
+        // segment : indice du segment [segment, segment + 1] qui encadre le point courant
+        int segment = 0;
+        for (int p = 0; p < original.size(); p++) {
+            double px = original.x(p), py = original.y(p);
+
+            double minDistance = distancePointToSegment(px, py,
+                    simplified.x(segment), simplified.y(segment), simplified.x(segment + 1), simplified.y(segment + 1));
+            minDistance = grid.nearest(px, py, minDistance);
+            totalPenalty += minDistance;
+
+            // Un point conservé (hors premier) clôt son segment
+            if (p > 0 && keep[p] && segment < segmentCount - 1) {
+                segment++;
+            }
+        }
+
+        return totalPenalty;
+    }
+
+    /**
+     * Recherche exhaustive (tous les points contre tous les segments), pour les petits tracés simplifiés.
+     */
+    private static double calculatePenaltyExhaustive(Trace original, Trace simplified) {
+        double totalPenalty = 0.0;
 
         // Pour chaque point du tracé original
-        for (Point p : original) {
+        for (int p = 0; p < original.size(); p++) {
+            double px = original.x(p), py = original.y(p);
             double minDistance = Double.POSITIVE_INFINITY;
 
             // Trouver le segment du tracé SIMPLIFIÉ le plus proche
             for (int i = 0; i < simplified.size() - 1; i++) {
-                Point a = simplified.get(i);
-                Point b = simplified.get(i + 1);
-
                 // Calculer la distance de P au segment [a, b]
-                double dist = distancePointToSegment(p, a, b);
+                double dist = distancePointToSegment(px, py,
+                        simplified.x(i), simplified.y(i), simplified.x(i + 1), simplified.y(i + 1));
 
                 minDistance = Math.min(minDistance, dist);
             }
@@ -142,10 +270,109 @@ public class DouglasPeuckerAnalyzer {
         return totalPenalty;
     }
 
+    /**
+     * Grille uniforme sur les segments du tracé simplifié : chaque case liste les segments dont
+     * la boîte englobante la touche (stockage compact : cellStart / cellSegments).
+     */
+    private static final class SegmentGrid {
+        private final Trace vertices;
+        private final double minX, minY, cellSize;
+        private final int columns, rows;
+        private final int[] cellStart;     // segments de la case c : cellSegments[cellStart[c] .. cellStart[c + 1][
+        private final int[] cellSegments;
+
+        SegmentGrid(Trace vertices) {
+            this.vertices = vertices;
+            int segmentCount = vertices.size() - 1;
+
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < vertices.size(); i++) {
+                minX = Math.min(minX, vertices.x(i));
+                minY = Math.min(minY, vertices.y(i));
+                maxX = Math.max(maxX, vertices.x(i));
+                maxY = Math.max(maxY, vertices.y(i));
+            }
+            this.minX = minX;
+            this.minY = minY;
+
+            // Environ une case par segment
+            double extent = Math.max(maxX - minX, maxY - minY);
+            double cell = extent / Math.ceil(Math.sqrt(segmentCount));
+            this.cellSize = (cell > 0) ? cell : 1.0;
+            this.columns = column(maxX) + 1;
+            this.rows = row(maxY) + 1;
+
+            // Deux passes : comptage par case, puis remplissage
+            int[] counts = new int[columns * rows + 1];
+            for (int s = 0; s < segmentCount; s++) {
+                forEachCell(s, (c, seg) -> counts[c + 1]++);
+            }
+            for (int c = 0; c < columns * rows; c++) {
+                counts[c + 1] += counts[c];
+            }
+            this.cellStart = counts.clone();
+            this.cellSegments = new int[counts[columns * rows]];
+            for (int s = 0; s < segmentCount; s++) {
+                forEachCell(s, (c, seg) -> cellSegments[counts[c]++] = seg);
+            }
+        }
+
+        private interface CellVisitor {
+            void visit(int cell, int segment);
+        }
+
+        private void forEachCell(int s, CellVisitor visitor) {
+            double ax = vertices.x(s), ay = vertices.y(s);
+            double bx = vertices.x(s + 1), by = vertices.y(s + 1);
+            int c0 = column(Math.min(ax, bx)), c1 = column(Math.max(ax, bx));
+            int r0 = row(Math.min(ay, by)), r1 = row(Math.max(ay, by));
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    visitor.visit(r * columns + c, s);
+                }
+            }
+        }
+
+        private int column(double x) {
+            return (int) Math.floor((x - minX) / cellSize);
+        }
+
+        private int row(double y) {
+            return (int) Math.floor((y - minY) / cellSize);
+        }
+
+        /**
+         * Distance minimale entre {@code bound} et celle des segments qui coupent le carré de
+         * demi-côté {@code bound} centré sur le point (les seuls qui peuvent être plus proches).
+         */
+        double nearest(double px, double py, double bound) {
+            double minDistance = bound;
+            // Légère marge : un segment à peine plus proche que bound ne doit pas être perdu sur un arrondi
+            double reach = bound * (1 + 1e-9) + 1e-12;
+            int c0 = Math.max(0, column(px - reach)), c1 = Math.min(columns - 1, column(px + reach));
+            int r0 = Math.max(0, row(py - reach)), r1 = Math.min(rows - 1, row(py + reach));
+
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    int cell = r * columns + c;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int s = cellSegments[k];
+                        double dist = distancePointToSegment(px, py,
+                                vertices.x(s), vertices.y(s), vertices.x(s + 1), vertices.y(s + 1));
+                        minDistance = Math.min(minDistance, dist);
+                    }
+                }
+            }
+            return minDistance;
+        }
+    }
+
     // --- 4. MÉTHODE PUBLIQUE D'ANALYSE ---
 
     /**
      * Exécute l'analyse Douglas-Peucker, calcule la pénalité et renvoie les deux résultats.
+     * Adaptateur List&lt;Point&gt; de {@link #analyze(Trace, double)}.
      * @param traceOriginal Le tracé utilisateur (Q)
      * @param epsilon Le seuil de tolérance (mesure du bruit/simplification)
      * @return Un objet AnalysisResult contenant la liste simplifiée et la pénalité.
@@ -154,16 +381,78 @@ public class DouglasPeuckerAnalyzer {
         if (traceOriginal == null || traceOriginal.size() < 2) {
             return new AnalysisResult(new ArrayList<>(), 0.0);
         }
+        return analyze(Trace.of(traceOriginal), epsilon);
+    }
+
+    /**
+     * Exécute l'analyse Douglas-Peucker sur un tracé, calcule la pénalité et renvoie les deux résultats.
+     * @param traceOriginal Le tracé utilisateur (Q)
+     * @param epsilon Le seuil de tolérance (mesure du bruit/simplification)
+     * @return Un objet AnalysisResult contenant la liste simplifiée et la pénalité.
+     */
+    public static AnalysisResult analyze(Trace traceOriginal, double epsilon) {
+        return analyze(traceOriginal, epsilon, ScoringMetrics.global());
+    }
+
+    /**
+     * Comme {@link #analyze(Trace, double)}, en chronométrant la simplification et la pénalité
+     * dans {@code metrics} (celles de l'appelant, voir TraceScorer).
+     */
+    public static AnalysisResult analyze(Trace traceOriginal, double epsilon, ScoringMetrics metrics) {
+        if (traceOriginal == null || traceOriginal.size() < 2) {
+            return new AnalysisResult(new ArrayList<>(), 0.0);
+        }
+
+        long simplificationStart = metrics.start();
+        ScoringEvents.Simplification event = new ScoringEvents.Simplification();
+        event.begin();
 
-        List<Point> simplified = new ArrayList<>();
+        int n = traceOriginal.size();
+        boolean[] keep = new boolean[n];
 
         // Lancer la simplification. Le point final doit être ajouté manuellement.
-        dpSimplify(traceOriginal, 0, traceOriginal.size() - 1, epsilon, simplified);
-        simplified.add(traceOriginal.get(traceOriginal.size() - 1));
+        if (n >= PARALLEL_THRESHOLD) {
+            dpSimplifyParallel(traceOriginal, 0, n - 1, epsilon, keep, PARALLEL_THRESHOLD / 4, ForkJoinPool.commonPool());
+        } else {
+            dpSimplify(traceOriginal, 0, n - 1, epsilon, keep);
+        }
+        keep[n - 1] = true;
+
+        Trace simplified = keptPoints(traceOriginal, keep);
+        metrics.stop(ScoringMetrics.Phase.SIMPLIFICATION, simplificationStart);
 
         // Calculer la pénalité
-        double penalty = calculatePenalty(traceOriginal, simplified);
+        long penaltyStart = metrics.start();
+        double penalty = calculatePenalty(traceOriginal, keep, simplified);
+        metrics.stop(ScoringMetrics.Phase.PENALTY, penaltyStart);
+
+        if (event.shouldCommit()) {
+            event.traceLength = n;
+            event.simplifiedLength = simplified.size();
+            event.epsilon = epsilon;
+            event.penalty = penalty;
+            event.commit();
+        }
+
+        return new AnalysisResult(simplified.toPoints(), penalty);
+    }
+
+    /**
+     * Extrait, dans l'ordre, les points marqués comme conservés.
+     */
+    private static Trace keptPoints(Trace trace, boolean[] keep) {
+        int count = 0;
+        for (boolean k : keep) {
+            if (k) count++;
+        }
 
-        return new AnalysisResult(simplified, penalty);
+        Trace kept = new Trace(count);
+        int j = 0;
+        for (int i = 0; i < keep.length; i++) {
+            if (keep[i]) {
+                kept.set(j++, trace.x(i), trace.y(i));
+            }
+        }
+        return kept;
     }
 }
@@ -2,9 +2,25 @@ package com.example.demo_lignedroite;
 
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class FrechetDistanceCalculator {
 
+    // Résultat renvoyé par les calculs bornés lorsque la distance atteint ou dépasse la borne
+    public static final double EXCEEDS_BOUND = Double.POSITIVE_INFINITY;
+
+    // Tampon de deux lignes réutilisé par thread (mode mémoire linéaire)
+    private static final ThreadLocal<double[]> SCRATCH = ThreadLocal.withInitial(() -> new double[0]);
+
+    // Distances d'une ligne de la matrice, calculées par lots (VectorKernels) ; une par thread
+    private static final ThreadLocal<double[]> DISTANCE_ROW = ThreadLocal.withInitial(() -> new double[0]);
+
+    // Demi-largeur initiale (en colonnes) du couloir du mode en bande, doublée tant que le résultat n'est pas prouvé
+    public static final int DEFAULT_BAND_RADIUS = 16;
+
+    // Résultat interne d'un passage en bande dont l'optimum n'est pas prouvé : il faut élargir
+    private static final double NEEDS_WIDENING = Double.NaN;
+
     /**
      * Calcule la distance euclidienne entre deux points.
      */
@@ -60,4 +76,408 @@ public class FrechetDistanceCalculator {
         // La Distance de Fréchet est la valeur dans le coin inférieur droit de la matrice
         return CA[n - 1][m - 1];
     }
-}
\ No newline at end of file
+
+    /**
+     * Renvoie le tampon de travail du thread courant, agrandi si besoin pour contenir
+     * deux lignes de la matrice DP entre des tracés de tailles n et m.
+     */
+    public static double[] scratchFor(int n, int m) {
+        int required = 2 * Math.min(n, m);
+        double[] scratch = SCRATCH.get();
+        if (scratch.length < required) {
+            scratch = new double[required];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * Distance de Fréchet discrète en mémoire linéaire, avec le tampon du thread courant.
+     * @see #calculateDiscreteFrechetLinear(Trace, Trace, double[])
+     */
+    public static double calculateDiscreteFrechetLinear(List<Point> P, List<Point> Q) {
+        return calculateDiscreteFrechetLinear(Trace.of(P), Trace.of(Q));
+    }
+
+    /**
+     * Adaptateur List&lt;Point&gt; de {@link #calculateDiscreteFrechetLinear(Trace, Trace, double[])}.
+     */
+    public static double calculateDiscreteFrechetLinear(List<Point> P, List<Point> Q, double[] scratch) {
+        return calculateDiscreteFrechetLinear(Trace.of(P), Trace.of(Q), scratch);
+    }
+
+    /**
+     * Distance de Fréchet discrète en mémoire linéaire, avec le tampon du thread courant.
+     * @see #calculateDiscreteFrechetLinear(Trace, Trace, double[])
+     */
+    public static double calculateDiscreteFrechetLinear(Trace P, Trace Q) {
+        return calculateDiscreteFrechetLinear(P, Q, scratchFor(P.size(), Q.size()));
+    }
+
+    /**
+     * Calcule la Distance de Fréchet discrète en ne gardant que deux lignes de la matrice,
+     * dimensionnées sur le tracé le plus court. Aucune allocation : le tampon est fourni
+     * par l'appelant. Le résultat est identique bit à bit à {@link #calculateDiscreteFrechet}.
+     * @param P Le tracé utilisateur (le tracé tourné, dans PathRotationOptimizer).
+     * @param Q Le tracé modèle.
+     * @param scratch Tampon de travail d'au moins 2 * min(|P|, |Q|) cases.
+     * @return La distance de Fréchet discrète.
+     */
+    public static double calculateDiscreteFrechetLinear(Trace P, Trace Q, double[] scratch) {
+        return calculateDiscreteFrechet(P, Q, Double.POSITIVE_INFINITY, scratch);
+    }
+
+    /**
+     * Adaptateur List&lt;Point&gt; de {@link #calculateDiscreteFrechet(Trace, Trace, double)}.
+     */
+    public static double calculateDiscreteFrechet(List<Point> P, List<Point> Q, double upperBound) {
+        return calculateDiscreteFrechet(Trace.of(P), Trace.of(Q), upperBound);
+    }
+
+    /**
+     * Adaptateur List&lt;Point&gt; de {@link #calculateDiscreteFrechet(Trace, Trace, double, double[])}.
+     */
+    public static double calculateDiscreteFrechet(List<Point> P, List<Point> Q, double upperBound, double[] scratch) {
+        return calculateDiscreteFrechet(Trace.of(P), Trace.of(Q), upperBound, scratch);
+    }
+
+    /**
+     * Distance de Fréchet discrète avec abandon anticipé, avec le tampon du thread courant.
+     * @see #calculateDiscreteFrechet(Trace, Trace, double, double[])
+     */
+    public static double calculateDiscreteFrechet(Trace P, Trace Q, double upperBound) {
+        return calculateDiscreteFrechet(P, Q, upperBound, scratchFor(P.size(), Q.size()));
+    }
+
+    /**
+     * Calcule la Distance de Fréchet discrète (mémoire linéaire) en abandonnant dès qu'aucun
+     * chemin ne peut plus passer sous la borne : les valeurs de la matrice ne décroissent jamais
+     * le long d'un chemin, donc si toute une ligne est &gt;= borne, le coin final l'est aussi.
+     * @param P Le tracé utilisateur (le tracé tourné, dans PathRotationOptimizer).
+     * @param Q Le tracé modèle.
+     * @param upperBound La borne (typiquement la meilleure distance trouvée jusqu'ici).
+     * @param scratch Tampon de travail d'au moins 2 * min(|P|, |Q|) cases.
+     * @return La distance exacte si elle est strictement inférieure à la borne,
+     *         sinon {@link #EXCEEDS_BOUND} (voir {@link #exceedsBound(double)}).
+     */
+    public static double calculateDiscreteFrechet(Trace P, Trace Q, double upperBound, double[] scratch) {
+        // Événement JFR (seuls les calculs lents sont enregistrés, voir ScoringEvents)
+        ScoringEvents.FrechetEvaluation event = new ScoringEvents.FrechetEvaluation();
+        event.begin();
+
+        double result = frechetLinear(P, Q, upperBound, scratch);
+
+        if (event.shouldCommit()) {
+            commitEvent(event, P, Q, upperBound, result, 0);
+        }
+        return result;
+    }
+
+    /**
+     * Distance de Fréchet en bande, avec le tampon du thread courant.
+     * @see #calculateBandedFrechet(Trace, Trace, double, int, double[])
+     */
+    public static double calculateBandedFrechet(Trace P, Trace Q, double upperBound, int bandRadius) {
+        return calculateBandedFrechet(P, Q, upperBound, bandRadius, scratchFor(P.size(), Q.size()));
+    }
+
+    /**
+     * Distance de Fréchet discrète limitée à un couloir autour de la diagonale (mise à l'échelle
+     * des deux longueurs) : après alignement, le couplage optimal en reste proche. Coût O(n·w)
+     * au lieu de O(n·m), pour une demi-largeur w.
+     * <p>
+     * Le résultat reste exact : tout couplage qui sort du couloir passe par une case juste à
+     * l'extérieur, atteinte depuis une case du couloir ; son coût est donc au moins
+     * max(valeur de la case de départ, distance de la case de sortie). Si l'une de ces sorties
+     * peut passer sous le résultat (ou sous la borne), le couloir est doublé et le calcul repris,
+     * jusqu'à la matrice complète au besoin. Résultat identique bit à bit à
+     * {@link #calculateDiscreteFrechet(Trace, Trace, double, double[])}.
+     * @param P Le tracé utilisateur (le tracé tourné, dans PathRotationOptimizer).
+     * @param Q Le tracé modèle.
+     * @param bandRadius Demi-largeur initiale du couloir, en colonnes (au moins 1).
+     * @param scratch Tampon de travail d'au moins 2 * min(|P|, |Q|) cases.
+     * @return La distance exacte si elle est strictement inférieure à la borne, sinon {@link #EXCEEDS_BOUND}.
+     */
+    public static double calculateBandedFrechet(Trace P, Trace Q, double upperBound, int bandRadius, double[] scratch) {
+        return calculateBandedFrechet(P, Q, upperBound, bandRadius, scratch, null);
+    }
+
+    /**
+     * Comme {@link #calculateBandedFrechet(Trace, Trace, double, int, double[])} ; {@code widenings[0]}
+     * reçoit le nombre d'élargissements du couloir (PathRotationOptimizer le compte dans ses statistiques).
+     * @param widenings Sortie d'au moins une case, ou null.
+     */
+    static double calculateBandedFrechet(Trace P, Trace Q, double upperBound, int bandRadius, double[] scratch,
+                                         int[] widenings) {
+        if (bandRadius < 1) {
+            throw new IllegalArgumentException("Demi-largeur de bande invalide : " + bandRadius);
+        }
+        ScoringEvents.FrechetEvaluation event = new ScoringEvents.FrechetEvaluation();
+        event.begin();
+
+        double result = NEEDS_WIDENING;
+        int radius = bandRadius;
+        int widened = 0;
+        if (!P.isEmpty() && !Q.isEmpty()) {
+            Trace rows = (P.size() >= Q.size()) ? P : Q;
+            Trace cols = (rows == P) ? Q : P;
+            if (scratch.length < 2 * cols.size()) {
+                throw new IllegalArgumentException("Tampon trop petit : " + scratch.length + " < " + (2 * cols.size()));
+            }
+            // Tant que le couloir ne couvre pas toutes les colonnes
+            while (2 * radius + 1 < cols.size()) {
+                result = frechetBand(rows, cols, radius, upperBound, scratch);
+                if (!Double.isNaN(result)) {
+                    break;
+                }
+                widened++;
+                radius *= 2;
+            }
+        }
+        if (Double.isNaN(result)) {
+            result = frechetLinear(P, Q, upperBound, scratch);
+        }
+        if (widenings != null) {
+            widenings[0] = widened;
+        }
+
+        if (event.shouldCommit()) {
+            commitEvent(event, P, Q, upperBound, result, radius);
+        }
+        return result;
+    }
+
+    /**
+     * Distance de Fréchet en parallèle sur le pool commun.
+     * @see #calculateDiscreteFrechetParallel(Trace, Trace, double, ForkJoinPool)
+     */
+    public static double calculateDiscreteFrechetParallel(Trace P, Trace Q) {
+        return calculateDiscreteFrechetParallel(P, Q, Double.POSITIVE_INFINITY, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Distance de Fréchet discrète d'une paire de très longs tracés (captures de stylet de
+     * dizaines de milliers de points), calculée par tuiles en front d'onde sur {@code pool}
+     * (voir WavefrontFrechet). Sous WavefrontFrechet.MIN_CELLS cases, ou si l'un des tracés
+     * tient en moins de deux tuiles, c'est la version séquentielle. Résultat identique bit à bit
+     * à {@link #calculateDiscreteFrechet(Trace, Trace, double, double[])}.
+     * @return La distance exacte si elle est strictement inférieure à la borne, sinon {@link #EXCEEDS_BOUND}.
+     */
+    public static double calculateDiscreteFrechetParallel(Trace P, Trace Q, double upperBound, ForkJoinPool pool) {
+        if (P.isEmpty() || Q.isEmpty()
+                || (long) P.size() * Q.size() < WavefrontFrechet.MIN_CELLS
+                || Math.min(P.size(), Q.size()) < 2 * WavefrontFrechet.TILE) {
+            return calculateDiscreteFrechet(P, Q, upperBound);
+        }
+        ScoringEvents.FrechetEvaluation event = new ScoringEvents.FrechetEvaluation();
+        event.begin();
+
+        double result = WavefrontFrechet.compute(P, Q, upperBound, pool);
+
+        if (event.shouldCommit()) {
+            commitEvent(event, P, Q, upperBound, result, 0);
+        }
+        return result;
+    }
+
+    private static void commitEvent(ScoringEvents.FrechetEvaluation event, Trace P, Trace Q, double upperBound,
+                                    double result, int bandRadius) {
+        event.traceLength = P.size();
+        event.modelLength = Q.size();
+        event.upperBound = upperBound;
+        event.abandoned = exceedsBound(result);
+        event.bandRadius = bandRadius;
+        event.commit();
+    }
+
+    private static double frechetLinear(Trace P, Trace Q, double upperBound, double[] scratch) {
+        if (P.isEmpty() || Q.isEmpty()) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        // La récurrence est symétrique (la matrice transposée donne la même valeur) :
+        // on parcourt la courbe la plus longue en lignes et la plus courte en colonnes.
+        Trace rows = (P.size() >= Q.size()) ? P : Q;
+        Trace cols = (rows == P) ? Q : P;
+        int n = rows.size();
+        int m = cols.size();
+
+        if (scratch.length < 2 * m) {
+            throw new IllegalArgumentException("Tampon trop petit : " + scratch.length + " < " + (2 * m));
+        }
+
+        // Les deux lignes se partagent le tampon : [prev, prev + m) et [curr, curr + m)
+        int prev = 0;
+        int curr = m;
+        double[] distances = batchedDistances(cols);
+
+        for (int i = 0; i < n; i++) {
+            double ax = rows.x(i);
+            double ay = rows.y(i);
+            double rowMin = Double.POSITIVE_INFINITY;
+            if (distances != null) {
+                VectorKernels.distances(ax, ay, cols.xArray(), cols.yArray(), 0, m, distances);
+            }
+
+            for (int j = 0; j < m; j++) {
+                double dist;
+                if (distances != null) {
+                    dist = distances[j];
+                } else {
+                    double dx = ax - cols.x(j);
+                    double dy = ay - cols.y(j);
+                    dist = Math.sqrt(dx * dx + dy * dy);
+                }
+
+                if (i == 0 && j == 0) {
+                    scratch[curr] = dist;
+                } else if (i == 0) {
+                    scratch[curr + j] = Math.max(scratch[curr + j - 1], dist);
+                } else if (j == 0) {
+                    scratch[curr] = Math.max(scratch[prev], dist);
+                } else {
+                    double min_prev = Math.min(scratch[prev + j],
+                            Math.min(scratch[curr + j - 1],
+                                    scratch[prev + j - 1]));
+                    scratch[curr + j] = Math.max(min_prev, dist);
+                }
+                rowMin = Math.min(rowMin, scratch[curr + j]);
+            }
+
+            // Tout chemin traverse cette ligne : si elle est entièrement au-dessus, c'est perdu
+            if (rowMin >= upperBound) {
+                return EXCEEDS_BOUND;
+            }
+
+            int tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+
+        // Après le dernier échange, la dernière ligne calculée est dans "prev"
+        double result = scratch[prev + m - 1];
+        return (result < upperBound) ? result : EXCEEDS_BOUND;
+    }
+
+    /**
+     * Un passage en bande de demi-largeur {@code radius} (n &gt;= m, voir calculateBandedFrechet).
+     * La ligne i couvre les colonnes [lo, hi] autour de round(i·(m-1)/(n-1)) ; lo et hi ne
+     * décroissent jamais et avancent d'au plus une colonne par ligne. Les deux lignes du tampon
+     * sont indexées par colonne, seules les cases du couloir sont lues.
+     * @return Le résultat (exact, ou EXCEEDS_BOUND), ou NEEDS_WIDENING si une sortie du couloir
+     *         peut faire mieux.
+     */
+    private static double frechetBand(Trace rows, Trace cols, int radius, double upperBound, double[] scratch) {
+        int n = rows.size();
+        int m = cols.size();
+        double slope = (n > 1) ? (double) (m - 1) / (n - 1) : 0;
+
+        int prev = 0;
+        int curr = m;
+        int prevLo = 0, prevHi = -1;
+        // Coût minimal d'un couplage qui quitte le couloir
+        double escapeMin = Double.POSITIVE_INFINITY;
+        double[] distances = (2 * radius + 1 >= VectorKernels.MIN_BATCH) ? batchedDistances(cols) : null;
+
+        for (int i = 0; i < n; i++) {
+            double ax = rows.x(i);
+            double ay = rows.y(i);
+            int center = (int) Math.round(i * slope);
+            int lo = Math.max(0, center - radius);
+            int hi = Math.min(m - 1, center + radius);
+            double rowMin = Double.POSITIVE_INFINITY;
+            if (distances != null) {
+                VectorKernels.distances(ax, ay, cols.xArray(), cols.yArray(), lo, hi + 1, distances);
+            }
+
+            for (int j = lo; j <= hi; j++) {
+                double dist;
+                if (distances != null) {
+                    dist = distances[j];
+                } else {
+                    double dx = ax - cols.x(j);
+                    double dy = ay - cols.y(j);
+                    dist = Math.sqrt(dx * dx + dy * dy);
+                }
+
+                double value;
+                if (i == 0 && j == 0) {
+                    value = dist;
+                } else {
+                    // Voisins hors du couloir : +∞ (ligne précédente limitée à [prevLo, prevHi])
+                    double up = (j >= prevLo && j <= prevHi) ? scratch[prev + j] : Double.POSITIVE_INFINITY;
+                    double diagonal = (j - 1 >= prevLo && j - 1 <= prevHi) ? scratch[prev + j - 1] : Double.POSITIVE_INFINITY;
+                    double left = (j > lo) ? scratch[curr + j - 1] : Double.POSITIVE_INFINITY;
+                    value = Math.max(Math.min(up, Math.min(left, diagonal)), dist);
+                }
+                scratch[curr + j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+
+            // Sortie par la droite : (i, hi + 1), depuis (i, hi) ou (i - 1, hi)
+            if (hi + 1 < m) {
+                double from = scratch[curr + hi];
+                if (i > 0 && prevHi == hi) {
+                    from = Math.min(from, scratch[prev + hi]);
+                }
+                escapeMin = Math.min(escapeMin, Math.max(from, distance(rows, i, cols, hi + 1)));
+            }
+            // Sortie par la gauche : (i, j) pour prevLo <= j < lo, depuis (i - 1, j) ou (i - 1, j - 1)
+            if (i > 0) {
+                for (int j = prevLo; j < lo; j++) {
+                    double from = scratch[prev + j];
+                    if (j - 1 >= prevLo) {
+                        from = Math.min(from, scratch[prev + j - 1]);
+                    }
+                    escapeMin = Math.min(escapeMin, Math.max(from, distance(rows, i, cols, j)));
+                }
+            }
+
+            // Tout chemin traverse cette ligne, dans le couloir ou après en être sorti
+            if (rowMin >= upperBound) {
+                return (escapeMin >= upperBound) ? EXCEEDS_BOUND : NEEDS_WIDENING;
+            }
+
+            int tmp = prev;
+            prev = curr;
+            curr = tmp;
+            prevLo = lo;
+            prevHi = hi;
+        }
+
+        double result = scratch[prev + m - 1];
+        if (escapeMin < Math.min(result, upperBound)) {
+            return NEEDS_WIDENING;
+        }
+        return (result < upperBound) ? result : EXCEEDS_BOUND;
+    }
+
+    /**
+     * Tampon des distances d'une ligne si les noyaux vectoriels s'appliquent aux colonnes, sinon null.
+     */
+    private static double[] batchedDistances(Trace cols) {
+        if (!VectorKernels.ENABLED || cols.isReversedView() || cols.size() < VectorKernels.MIN_BATCH) {
+            return null;
+        }
+        double[] row = DISTANCE_ROW.get();
+        if (row.length < cols.size()) {
+            row = new double[cols.size()];
+            DISTANCE_ROW.set(row);
+        }
+        return row;
+    }
+
+    private static double distance(Trace a, int i, Trace b, int j) {
+        double dx = a.x(i) - b.x(j);
+        double dy = a.y(i) - b.y(j);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Indique si un résultat de {@link #calculateDiscreteFrechet(Trace, Trace, double)} signifie
+     * que la borne a été atteinte ou dépassée (calcul abandonné).
+     */
+    public static boolean exceedsBound(double result) {
+        return result == EXCEEDS_BOUND;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo_lignedroite;
+
+/**
+ * Bornes inférieures bon marché de la distance de Fréchet discrète entre un tracé utilisateur
+ * tourné autour de l'origine et un tracé modèle fixe (centré). Elles permettent d'écarter un
+ * angle candidat sans construire le tracé tourné ni remplir la matrice de programmation dynamique.
+ */
+public class FrechetLowerBounds {
+
+    private final Point modelFirst;
+    private final Point modelLast;
+    private final Trace modelPoints;
+
+    // Boîte englobante du modèle
+    private final double modelMinX, modelMinY, modelMaxX, modelMaxY;
+
+    public FrechetLowerBounds(Trace centeredModel) {
+        this.modelPoints = centeredModel;
+        this.modelFirst = centeredModel.first();
+        this.modelLast = centeredModel.last();
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < centeredModel.size(); i++) {
+            minX = Math.min(minX, centeredModel.x(i));
+            minY = Math.min(minY, centeredModel.y(i));
+            maxX = Math.max(maxX, centeredModel.x(i));
+            maxY = Math.max(maxY, centeredModel.y(i));
+        }
+        this.modelMinX = minX;
+        this.modelMinY = minY;
+        this.modelMaxX = maxX;
+        this.modelMaxY = maxY;
+    }
+
+    /**
+     * Borne des extrémités : tout couplage apparie les premiers points entre eux et les derniers
+     * entre eux, donc Fréchet >= max(d(P0, Q0), d(Pn, Qm)). En O(1) : seuls deux points sont tournés.
+     */
+    public double endpointBound(Trace user, double cos, double sin) {
+        int last = user.size() - 1;
+        double firstX = user.x(0), firstY = user.y(0);
+        double lastX = user.x(last), lastY = user.y(last);
+
+        double firstDistance = distance(firstX * cos - firstY * sin, firstX * sin + firstY * cos, modelFirst);
+        double lastDistance = distance(lastX * cos - lastY * sin, lastX * sin + lastY * cos, modelLast);
+        return Math.max(firstDistance, lastDistance);
+    }
+
+    /**
+     * Borne de Hausdorff par boîtes englobantes : chaque point d'une courbe est couplé à un point
+     * de l'autre, donc à une distance au moins égale à sa distance à la boîte englobante de l'autre.
+     * En O(n + m), sans allocation.
+     */
+    public double boundingBoxBound(Trace user, double cos, double sin) {
+        double bound = 0;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+
+        // Points utilisateur (tournés à la volée) contre la boîte du modèle
+        for (int i = 0; i < user.size(); i++) {
+            double x = user.x(i) * cos - user.y(i) * sin;
+            double y = user.x(i) * sin + user.y(i) * cos;
+
+            bound = Math.max(bound, distanceToBox(x, y, modelMinX, modelMinY, modelMaxX, modelMaxY));
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+
+        // Points du modèle contre la boîte de l'utilisateur tourné
+        for (int i = 0; i < modelPoints.size(); i++) {
+            bound = Math.max(bound, distanceToBox(modelPoints.x(i), modelPoints.y(i), minX, minY, maxX, maxY));
+        }
+
+        return bound;
+    }
+
+    private static double distanceToBox(double x, double y, double minX, double minY, double maxX, double maxY) {
+        double dx = Math.max(Math.max(minX - x, x - maxX), 0);
+        double dy = Math.max(Math.max(minY - y, y - maxY), 0);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static double distance(double x, double y, Point p) {
+        double dx = x - p.x();
+        double dy = y - p.y();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo_lignedroite;
+
+/**
+ * Distance de Fréchet discrète calculée en ligne : le modèle est fixe et le tracé utilisateur
+ * grandit point par point. Chaque point ajouté prolonge la matrice DP d'une colonne en O(m)
+ * (m = taille du modèle) au lieu de tout recalculer ; seule la dernière colonne est conservée.
+ * Après l'ajout de tous les points, la distance est identique à celle de
+ * FrechetDistanceCalculator.calculateDiscreteFrechet(modèle, tracé).
+ */
+public class IncrementalFrechet {
+
+    private final Trace model;
+
+    // column[i] : valeur DP pour (point i du modèle, dernier point utilisateur)
+    private final double[] column;
+    private int userCount = 0;
+
+    public IncrementalFrechet(Trace model) {
+        if (model.isEmpty()) {
+            throw new IllegalArgumentException("Le modèle doit contenir au moins un point");
+        }
+        this.model = model;
+        this.column = new double[model.size()];
+    }
+
+    /**
+     * Ajoute un point au tracé utilisateur et renvoie la distance de Fréchet du tracé ainsi prolongé.
+     */
+    public double append(double x, double y) {
+        int m = column.length;
+
+        if (userCount == 0) {
+            // Première colonne : seulement depuis le haut
+            column[0] = distance(0, x, y);
+            for (int i = 1; i < m; i++) {
+                column[i] = Math.max(column[i - 1], distance(i, x, y));
+            }
+        } else {
+            // diagonal = ancienne valeur column[i - 1], avant sa mise à jour
+            double diagonal = column[0];
+            column[0] = Math.max(column[0], distance(0, x, y));
+            for (int i = 1; i < m; i++) {
+                double left = column[i];
+                double minPrevious = Math.min(left, Math.min(column[i - 1], diagonal));
+                column[i] = Math.max(minPrevious, distance(i, x, y));
+                diagonal = left;
+            }
+        }
+
+        userCount++;
+        return column[m - 1];
+    }
+
+    /**
+     * Distance de Fréchet du tracé courant (+∞ tant qu'aucun point n'a été ajouté).
+     */
+    public double distance() {
+        return (userCount == 0) ? Double.POSITIVE_INFINITY : column[column.length - 1];
+    }
+
+    /**
+     * Nombre de points utilisateur déjà ajoutés.
+     */
+    public int size() {
+        return userCount;
+    }
+
+    /**
+     * Repart d'un tracé utilisateur vide (le modèle est conservé).
+     */
+    public void reset() {
+        userCount = 0;
+    }
+
+    private double distance(int i, double x, double y) {
+        double dx = model.x(i) - x;
+        double dy = model.y(i) - y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demo_lignedroite;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées (en nanosecondes), sans verrou et de taille fixe.
+ * Cases log-linéaires : chaque puissance de 2 est découpée en 2^SUB_BUCKET_BITS cases, soit une
+ * erreur relative d'au plus 12,5 % sur les percentiles, de la nanoseconde à plusieurs heures.
+ * Les enregistrements concurrents ne se bloquent pas ; un instantané pris pendant des
+ * enregistrements peut être légèrement incohérent (compte et cases lus à des instants voisins).
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * @param count Nombre de mesures.
+     * @param meanNanos Moyenne exacte.
+     * @param p50Nanos Médiane (borne haute de sa case, comme les autres percentiles).
+     * @param maxNanos Maximum exact.
+     */
+    public record Snapshot(long count, double meanNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                           long p999Nanos, long maxNanos) {}
+
+    /**
+     * Enregistreur réservé à un seul thread, sans opération atomique, pour les mesures très
+     * fréquentes (une par calcul de Fréchet) : ses mesures sont ensuite versées en une fois dans
+     * l'histogramme par {@link LatencyHistogram#record(Recorder)}.
+     */
+    public static final class Recorder {
+        private final long[] buckets = new long[BUCKETS];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets[bucketOf(value)]++;
+            count++;
+            totalNanos += value;
+            maxNanos = Math.max(maxNanos, value);
+        }
+
+        /**
+         * Ajoute les mesures d'un autre enregistreur (fusion des résultats de plusieurs threads).
+         */
+        public void add(Recorder other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            count += other.count;
+            totalNanos += other.totalNanos;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+        }
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Verse d'un coup les mesures d'un enregistreur local dans l'histogramme.
+     */
+    public void record(Recorder recorder) {
+        if (recorder.count == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            if (recorder.buckets[i] != 0) {
+                buckets.addAndGet(i, recorder.buckets[i]);
+            }
+        }
+        count.add(recorder.count);
+        totalNanos.add(recorder.totalNanos);
+        maxNanos.accumulateAndGet(recorder.maxNanos, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Percentile {@code quantile} (entre 0 et 1), borne haute de la case qui le contient
+     * (sans dépasser le maximum observé) ; 0 si l'histogramme est vide.
+     */
+    public long percentile(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return percentile(counts, total, quantile);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        double mean = (total == 0) ? 0 : (double) totalNanos.sum() / count.sum();
+        return new Snapshot(total, mean,
+                percentile(counts, total, 0.50), percentile(counts, total, 0.90),
+                percentile(counts, total, 0.99), percentile(counts, total, 0.999), maxNanos.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    private long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Case d'une valeur : les valeurs sous SUB_BUCKETS ont chacune leur case, les suivantes sont
+     * repérées par leur puissance de 2 et leurs SUB_BUCKET_BITS bits suivants.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Plus grande valeur rangée dans la case {@code bucket}.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long mantissa = bucket % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lower = (SUB_BUCKETS + mantissa) << shift;
+        long width = 1L << shift;
+        // La dernière case déborde de long : on sature
+        return (lower + width - 1 < lower) ? Long.MAX_VALUE : lower + width - 1;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo_lignedroite;
+
+import java.util.Arrays;
+
+/**
+ * Score provisoire calculé pendant le dessin, point par point.
+ * <p>
+ * L'alignement (rotation, échelle, centres) est déduit en O(1) de la corde du tracé courant
+ * (premier point → dernier point) et du centre de gravité ; tant que sa dérive déplace le
+ * tracé de moins de MAX_DRIFT pixels, chaque nouveau point est simplement transformé puis
+ * ajouté à la distance de Fréchet incrémentale (O(m)). Au-delà, l'alignement est recalculé et
+ * la DP rejouée sur tout le tracé (O(n·m)), ce qui reste sous la milliseconde par point pour
+ * un tracé de quelques centaines de points.
+ * <p>
+ * Ce score est une approximation (alignement par la corde, modèle échantillonné à 1 px) :
+ * le score définitif est celui de TraceScorer, calculé au relâchement.
+ */
+public class LiveScorer {
+
+    // Dérive tolérée avant de recalculer l'alignement : déplacement maximal (en pixels, dans le
+    // repère du modèle) qu'elle peut causer à l'extrémité du tracé
+    private static final double MAX_DRIFT = 1.0;
+
+    // Corde minimale (en pixels) pour définir une orientation et une échelle
+    private static final double MIN_CHORD = 3.0;
+
+    private final TraceScorer.Options options;
+    private final double modelLength;
+    private final double modelAngle;
+    private final double modelCenterX, modelCenterY;
+    private final IncrementalFrechet frechet;
+
+    // Points retenus (rééchantillonnés si l'option est active)
+    private double[] xs = new double[256];
+    private double[] ys = new double[256];
+    private int size = 0;
+    private double sumX = 0, sumY = 0;
+
+    // Rééchantillonnage en flux : dernier point brut et chemin parcouru depuis le dernier point retenu
+    private double lastRawX, lastRawY;
+    private double sinceSample = 0;
+
+    // Alignement courant : p' = R(angle) · scale · (p - center) + centre du modèle
+    private boolean aligned = false;
+    private double angle, scale, centerX, centerY, cos, sin;
+    private int realignments = 0;
+
+    public LiveScorer(Point modelStart, Point modelEnd, TraceScorer.Options options) {
+        this.options = options;
+
+        double dx = modelEnd.x() - modelStart.x();
+        double dy = modelEnd.y() - modelStart.y();
+        this.modelLength = Math.sqrt(dx * dx + dy * dy);
+        this.modelAngle = Math.toDegrees(Math.atan2(dy, dx));
+        this.modelCenterX = (modelStart.x() + modelEnd.x()) / 2;
+        this.modelCenterY = (modelStart.y() + modelEnd.y()) / 2;
+
+        // Modèle échantillonné à environ 1 px : l'erreur de discrétisation reste sous le pixel
+        int count = Math.max(2, (int) Math.ceil(modelLength) + 1);
+        this.frechet = new IncrementalFrechet(TraceScorer.generateLineTrace(
+                modelStart.x(), modelStart.y(), modelEnd.x(), modelEnd.y(), count));
+    }
+
+    /**
+     * Ajoute un point du tracé et renvoie le score provisoire (NaN tant que le tracé est trop court).
+     */
+    public double addPoint(double x, double y) {
+        if (!options.resampling() || size == 0) {
+            addSample(x, y);
+        } else {
+            // Même pas que le rééchantillonnage de TraceScorer :
+            // un point tous les 2 × tolérance le long de la courbe
+            double step = 2 * TraceScorer.RESAMPLING_TOLERANCE;
+            double segment = Math.hypot(x - lastRawX, y - lastRawY);
+            double offset = step - sinceSample;
+            while (offset <= segment) {
+                double ratio = offset / segment;
+                addSample(lastRawX + (x - lastRawX) * ratio, lastRawY + (y - lastRawY) * ratio);
+                offset += step;
+            }
+            sinceSample = segment - (offset - step);
+        }
+        lastRawX = x;
+        lastRawY = y;
+        return score();
+    }
+
+    private void addSample(double x, double y) {
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+        sumX += x;
+        sumY += y;
+
+        double chordX = x - xs[0];
+        double chordY = y - ys[0];
+        double chord = Math.sqrt(chordX * chordX + chordY * chordY);
+        if (chord < MIN_CHORD) {
+            return;
+        }
+
+        double currentAngle = modelAngle - Math.toDegrees(Math.atan2(chordY, chordX));
+        double currentScale = modelLength / chord;
+        double currentCenterX = sumX / size;
+        double currentCenterY = sumY / size;
+
+        if (!aligned || drifted(currentAngle, currentScale, currentCenterX, currentCenterY)) {
+            align(currentAngle, currentScale, currentCenterX, currentCenterY);
+        } else {
+            appendAligned(x, y);
+        }
+    }
+
+    /**
+     * Score provisoire (0 à 100), NaN tant qu'aucun alignement n'est défini.
+     */
+    public double score() {
+        if (!aligned) {
+            return Double.NaN;
+        }
+        double score = TraceScorer.scoreFromDistance(frechet.distance(), modelLength);
+        return options.anglePenalty() ? TraceScorer.applyAnglePenalty(score, normalizedAngle()) : score;
+    }
+
+    /**
+     * Distance de Fréchet provisoire (+∞ tant qu'aucun alignement n'est défini).
+     */
+    public double distance() {
+        return aligned ? frechet.distance() : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Angle de rotation absolu de l'alignement courant, entre 0 et 180 degrés.
+     */
+    public double normalizedAngle() {
+        double normalized = ((angle % 360) + 360) % 360;
+        return Math.abs(normalized > 180 ? normalized - 360 : normalized);
+    }
+
+    /**
+     * Nombre de recalculs complets de l'alignement depuis le début du tracé.
+     */
+    public int realignments() {
+        return realignments;
+    }
+
+    /**
+     * Majorant du déplacement d'une extrémité du tracé entre l'alignement courant et l'alignement
+     * à jour : rotation (rayon · Δθ), échelle (rayon · Δs / s) et translation du centre.
+     */
+    private boolean drifted(double currentAngle, double currentScale, double currentCenterX, double currentCenterY) {
+        double radius = modelLength / 2;
+        double angleDelta = Math.toRadians(Math.abs(((currentAngle - angle) % 360 + 540) % 360 - 180));
+        double centerShift = Math.hypot(currentCenterX - centerX, currentCenterY - centerY) * currentScale;
+        double displacement = radius * angleDelta + radius * Math.abs(currentScale / scale - 1) + centerShift;
+        return displacement > MAX_DRIFT;
+    }
+
+    /**
+     * Fixe un nouvel alignement et rejoue la DP sur tous les points déjà reçus.
+     */
+    private void align(double newAngle, double newScale, double newCenterX, double newCenterY) {
+        angle = newAngle;
+        scale = newScale;
+        centerX = newCenterX;
+        centerY = newCenterY;
+        cos = Math.cos(Math.toRadians(newAngle));
+        sin = Math.sin(Math.toRadians(newAngle));
+        aligned = true;
+        realignments++;
+
+        frechet.reset();
+        for (int i = 0; i < size; i++) {
+            appendAligned(xs[i], ys[i]);
+        }
+    }
+
+    private void appendAligned(double x, double y) {
+        double dx = (x - centerX) * scale;
+        double dy = (y - centerY) * scale;
+        frechet.append(dx * cos - dy * sin + modelCenterX, dx * sin + dy * cos + modelCenterY);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo_lignedroite;
+
+/**
+ * Modèle préparé une fois pour toutes : tout ce que PathRotationOptimizer calcule côté modèle
+ * (centre, copie centrée, longueur début-fin, boîte englobante et bornes inférieures).
+ * Immuable après construction, il peut être partagé entre threads et réutilisé pour tous les
+ * tracés comparés au même modèle (voir ModelTemplateCache).
+ */
+public final class ModelTemplate {
+
+    private final Trace points;
+    private final Point center;
+    private final Trace centeredPoints;
+    private final double length;
+    private final FrechetLowerBounds lowerBounds;
+
+    private ModelTemplate(Trace points) {
+        this.points = points;
+        this.center = points.centroid();
+        this.centeredPoints = points.translateInto(-center.x(), -center.y(), new Trace(points.size()));
+        this.length = points.endToEndLength();
+        this.lowerBounds = new FrechetLowerBounds(centeredPoints);
+    }
+
+    /**
+     * Prépare un modèle quelconque (le tracé est copié).
+     * @throws IllegalArgumentException si le modèle est vide.
+     */
+    public static ModelTemplate of(Trace modelPoints) {
+        if (modelPoints.isEmpty()) {
+            throw new IllegalArgumentException("Le modèle doit contenir au moins un point");
+        }
+        return new ModelTemplate(modelPoints.copy());
+    }
+
+    /**
+     * Prépare la ligne droite modèle échantillonnée en {@code count} points.
+     */
+    public static ModelTemplate line(Point start, Point end, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Le modèle doit contenir au moins un point");
+        }
+        return new ModelTemplate(TraceScorer.generateLineTrace(start.x(), start.y(), end.x(), end.y(), count));
+    }
+
+    /**
+     * Points du modèle, dans leur repère d'origine (à ne pas modifier).
+     */
+    public Trace points() {
+        return points;
+    }
+
+    public Point center() {
+        return center;
+    }
+
+    /**
+     * Points du modèle centrés à l'origine (à ne pas modifier).
+     */
+    public Trace centeredPoints() {
+        return centeredPoints;
+    }
+
+    /**
+     * Longueur début-fin du modèle.
+     */
+    public double length() {
+        return length;
+    }
+
+    /**
+     * Bornes inférieures de Fréchet contre le modèle centré (boîte englobante comprise).
+     */
+    public FrechetLowerBounds lowerBounds() {
+        return lowerBounds;
+    }
+
+    public int size() {
+        return points.size();
+    }
+}
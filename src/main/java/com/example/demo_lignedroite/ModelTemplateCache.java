@@ -0,0 +1,80 @@
+package com.example.demo_lignedroite;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU de modèles préparés, indexé par la géométrie du modèle (extrémités de la ligne
+ * droite) et son nombre de points. Le serveur de scoring compare des milliers de tracés à une
+ * poignée de modèles : une fois le modèle en cache, il n'y a plus aucun calcul côté modèle.
+ * Les accès sont synchronisés ; un modèle est construit au plus une fois tant qu'il reste en cache.
+ */
+public final class ModelTemplateCache {
+
+    // Quelques modèles, mais autant d'entrées par modèle que de tailles de tracé rencontrées
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final ModelTemplateCache SHARED = new ModelTemplateCache(DEFAULT_CAPACITY);
+
+    private record Key(double startX, double startY, double endX, double endY, int count) {}
+
+    private final int capacity;
+    private final LinkedHashMap<Key, ModelTemplate> templates;
+    private long hits = 0;
+    private long misses = 0;
+
+    public ModelTemplateCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacity);
+        }
+        this.capacity = capacity;
+        // accessOrder = true : l'itération va du moins au plus récemment utilisé
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ModelTemplate> eldest) {
+                return size() > ModelTemplateCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Cache partagé par défaut (utilisé par TraceScorer).
+     */
+    public static ModelTemplateCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Ligne droite modèle de {@code start} à {@code end} en {@code count} points, préparée au
+     * premier appel puis reprise du cache.
+     */
+    public synchronized ModelTemplate line(Point start, Point end, int count) {
+        Key key = new Key(start.x(), start.y(), end.x(), end.y(), count);
+        ModelTemplate template = templates.get(key);
+        if (template != null) {
+            hits++;
+            return template;
+        }
+
+        misses++;
+        template = ModelTemplate.line(start, end, count);
+        templates.put(key, template);
+        return template;
+    }
+
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        templates.clear();
+    }
+}
@@ -6,7 +6,19 @@ import java.util.Random;
 
 public class PathGenerator {
 
-    private final Random random = new Random();
+    private final Random random;
+
+    public PathGenerator() {
+        this.random = new Random();
+    }
+
+    /**
+     * Générateur reproductible : une même graine produit toujours les mêmes tracés bruités
+     * (utile pour les bancs d'essai).
+     */
+    public PathGenerator(long seed) {
+        this.random = new Random(seed);
+    }
 
     /**
      * Génère une ligne droite parfaite entre deux points avec un nombre donné d'étapes.
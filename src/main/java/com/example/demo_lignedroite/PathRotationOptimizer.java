@@ -2,97 +2,351 @@
 package com.example.demo_lignedroite;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.DoubleAccumulator;
 
 public class PathRotationOptimizer {
 
     private static final double ROTATION_STEP = 0.25;
 
+    // Table des cosinus / sinus des angles du balayage exhaustif (k * ROTATION_STEP), calculés
+    // une fois pour toutes avec la même formule que evaluateAngle : résultats identiques au bit près
+    private static final int SWEEP_STEPS = (int) Math.round(360 / ROTATION_STEP);
+    private static final double[] SWEEP_COS = new double[SWEEP_STEPS];
+    private static final double[] SWEEP_SIN = new double[SWEEP_STEPS];
+
+    static {
+        for (int k = 0; k < SWEEP_STEPS; k++) {
+            double angleRadians = Math.toRadians(k * ROTATION_STEP);
+            SWEEP_COS[k] = Math.cos(angleRadians);
+            SWEEP_SIN[k] = Math.sin(angleRadians);
+        }
+    }
+
+    // Tampon de rotation réutilisé par thread : aucun tracé n'est alloué par angle candidat
+    private static final ThreadLocal<Trace> ROTATION_BUFFER = ThreadLocal.withInitial(() -> new Trace(0));
+
+    // Fréchet en bande (voir FrechetDistanceCalculator.calculateBandedFrechet) à partir de cette
+    // taille (plus court des deux tracés) ; en dessous, la matrice complète est aussi rapide
+    static final int BANDED_MIN_POINTS = 256;
+
+    // Pas du balayage grossier et déplacement maximal toléré (en pixels) pour le mode multi-résolution
+    private static final double DEFAULT_COARSE_STEP = 10.0;
+    private static final int DEFAULT_CANDIDATE_BASINS = 3;
+    private static final double MAX_POINT_DISPLACEMENT = 1.0;
+
+    // Demi-largeur (en degrés) de la fenêtre affinée autour de chaque candidat analytique
+    private static final double ANALYTIC_WINDOW = 5.0;
+
+    // Confiance minimale d'un angle estimé pour être affiné (en dessous : estimation ambiguë)
+    private static final double MIN_ESTIMATE_CONFIDENCE = 0.2;
+    // Au-delà de cette confiance, l'angle estimé est évalué tel quel, sans fenêtre d'affinage
+    private static final double DEFAULT_SKIP_REFINEMENT_CONFIDENCE = 0.99;
+
+    /**
+     * Stratégie de recherche de l'angle.
+     * EXHAUSTIVE : balayage complet tous les ROTATION_STEP degrés (mode de référence).
+     * COARSE_TO_FINE : balayage grossier, puis affinage par section dorée des meilleurs bassins.
+     * ANALYTIC : affinage autour des angles proposés par l'AngleEstimator (ACP / Procrustes par
+     * défaut), avec repli sur le balayage exhaustif si l'estimation est ambiguë.
+     */
+    public enum SearchMode { EXHAUSTIVE, COARSE_TO_FINE, ANALYTIC }
+
+    private SearchMode searchMode = SearchMode.EXHAUSTIVE;
+    private double coarseStep = DEFAULT_COARSE_STEP;
+    private int candidateBasins = DEFAULT_CANDIDATE_BASINS;
+    private double angularTolerance = Double.NaN; // NaN : dérivée du rayon du tracé
+    private ExecutorService executor = null;       // null : exécution séquentielle
+    private AngleEstimator angleEstimator = new AnalyticAlignment();
+    private double skipRefinementConfidence = DEFAULT_SKIP_REFINEMENT_CONFIDENCE;
+    private boolean lowerBoundPruning = true;
+    private int bandRadius = FrechetDistanceCalculator.DEFAULT_BAND_RADIUS; // 0 : toujours la matrice complète
+    private ScoringMetrics metrics = ScoringMetrics.global();
+
+    public PathRotationOptimizer() {
+    }
+
+    public PathRotationOptimizer(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    /** Pas (en degrés) du balayage grossier du mode COARSE_TO_FINE. */
+    public void setCoarseStep(double coarseStep) {
+        this.coarseStep = coarseStep;
+    }
+
+    /** Nombre de bassins (minima locaux du balayage grossier) affinés en mode COARSE_TO_FINE. */
+    public void setCandidateBasins(int candidateBasins) {
+        this.candidateBasins = candidateBasins;
+    }
+
+    /**
+     * Tolérance angulaire (en degrés) de l'affinage. Double.NaN (par défaut) la dérive du rayon
+     * du tracé pour que le déplacement du point le plus éloigné reste sous MAX_POINT_DISPLACEMENT.
+     */
+    public void setAngularTolerance(double angularTolerance) {
+        this.angularTolerance = angularTolerance;
+    }
+
+    /**
+     * Exécute les angles candidats en parallèle sur cet exécuteur (typiquement un ForkJoinPool).
+     * Le résultat est identique au mode séquentiel, égalités comprises. L'appelant reste
+     * responsable du cycle de vie de l'exécuteur. null : exécution sur le thread appelant.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Stratégie d'estimation d'angle du mode ANALYTIC : AnalyticAlignment (ACP / Procrustes, par défaut)
+     * ou DirectionHistogramEstimator (corrélation d'histogrammes de directions par FFT).
+     */
+    public void setAngleEstimator(AngleEstimator angleEstimator) {
+        this.angleEstimator = angleEstimator;
+    }
+
+    /**
+     * Confiance à partir de laquelle un angle estimé est pris tel quel (une seule évaluation de Fréchet).
+     * Double.POSITIVE_INFINITY : toujours affiner.
+     */
+    public void setSkipRefinementConfidence(double skipRefinementConfidence) {
+        this.skipRefinementConfidence = skipRefinementConfidence;
+    }
+
+    /**
+     * Active l'élagage des angles par bornes inférieures (FrechetLowerBounds) avant le calcul
+     * complet de Fréchet. Sans effet sur le résultat ; activé par défaut.
+     */
+    public void setLowerBoundPruning(boolean lowerBoundPruning) {
+        this.lowerBoundPruning = lowerBoundPruning;
+    }
+
+    /**
+     * Demi-largeur initiale du couloir de Fréchet pour les tracés d'au moins BANDED_MIN_POINTS points
+     * (élargi automatiquement : sans effet sur le résultat). 0 : matrice complète.
+     */
+    public void setBandRadius(int bandRadius) {
+        if (bandRadius < 0) {
+            throw new IllegalArgumentException("Demi-largeur de bande invalide : " + bandRadius);
+        }
+        this.bandRadius = bandRadius;
+    }
+
+    /**
+     * Mesures alimentées par la recherche (ScoringMetrics.global() par défaut).
+     */
+    public void setMetrics(ScoringMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param reversed Le meilleur résultat est celui du tracé parcouru en sens inverse
+     *                 (bestAngle est la rotation de cette orientation).
+     */
     public record RotationResult(
             double bestAngle,
             double bestFrechetDistance,
             double NormalizedAngle,
             double scaleFactor,
-            List<Point> rotatedPoints
+            List<Point> rotatedPoints,
+            SearchStatistics statistics,
+            boolean reversed
+    ) {}
+
+    /**
+     * Compteurs d'une recherche d'angle.
+     * @param candidates Nombre de couples (angle, orientation) examinés.
+     * @param prunedByEndpoints Candidats écartés par la borne des extrémités.
+     * @param prunedByBoundingBox Candidats écartés par la borne des boîtes englobantes.
+     * @param abandoned Calculs de Fréchet interrompus par l'abandon anticipé.
+     * @param fullEvaluations Calculs de Fréchet menés jusqu'au bout.
+     * @param bandWidenings Élargissements du couloir du Fréchet en bande (voir setBandRadius).
+     */
+    public record SearchStatistics(
+            long candidates,
+            long prunedByEndpoints,
+            long prunedByBoundingBox,
+            long abandoned,
+            long fullEvaluations,
+            long bandWidenings
     ) {}
 
-    // Contient le meilleur résultat global trouvé après toutes les rotations
+    // Contient le meilleur résultat global trouvé après toutes les rotations.
+    // Le tracé tourné gagnant n'est pas conservé : seule sa rotation l'est, il est recalculé à la fin.
     private static class OptimizationState {
         double bestAngle = 0;
         double bestFrechetDistance = Double.MAX_VALUE;
-        List<Point> bestRotatedPoints = new ArrayList<>();
+        boolean hasBest = false;
+        boolean bestReversed = false;
+        double bestCos = 1, bestSin = 0;
+        int evaluations = 0;
+        long prunedByEndpoints = 0;
+        long prunedByBoundingBox = 0;
+        long abandoned = 0;
+        long bandWidenings = 0;
+        final int[] widenings = new int[1]; // Sortie de FrechetDistanceCalculator.calculateBandedFrechet
+        // Durées des calculs de Fréchet de ce segment, enregistrées à la fin de la recherche
+        // (créé au premier calcul mesuré)
+        LatencyHistogram.Recorder frechetTimes = null;
+
+        LatencyHistogram.Recorder frechetTimes() {
+            if (frechetTimes == null) {
+                frechetTimes = new LatencyHistogram.Recorder();
+            }
+            return frechetTimes;
+        }
+
+        /**
+         * Fusionne le résultat d'un segment de candidats évalué APRÈS ceux de cet état :
+         * comme en séquentiel, seule une distance strictement meilleure remplace l'actuelle.
+         */
+        void merge(OptimizationState other) {
+            evaluations += other.evaluations;
+            prunedByEndpoints += other.prunedByEndpoints;
+            prunedByBoundingBox += other.prunedByBoundingBox;
+            abandoned += other.abandoned;
+            bandWidenings += other.bandWidenings;
+            if (other.frechetTimes != null) {
+                frechetTimes().add(other.frechetTimes);
+            }
+            if (other.bestFrechetDistance < bestFrechetDistance) {
+                bestFrechetDistance = other.bestFrechetDistance;
+                bestAngle = other.bestAngle;
+                hasBest = other.hasBest;
+                bestReversed = other.bestReversed;
+                bestCos = other.bestCos;
+                bestSin = other.bestSin;
+            }
+        }
+
+        SearchStatistics statistics() {
+            long pruned = prunedByEndpoints + prunedByBoundingBox;
+            return new SearchStatistics(evaluations, prunedByEndpoints, prunedByBoundingBox,
+                    abandoned, evaluations - pruned - abandoned, bandWidenings);
+        }
     }
 
     /**
-     * Applique uniquement la mise à l'échelle au chemin de l'utilisateur.
-     * La translation (centrage) est gérée séparément.
+     * Données partagées par toutes les évaluations d'une recherche : les deux orientations
+     * centrées du tracé utilisateur (la seconde est une vue inversée de la première), le modèle
+     * centré et ses bornes (null si l'élagage est désactivé). Les rotations se font autour de l'origine.
      */
-    private List<Point> normalizePathScale(List<Point> userPoints, double scaleFactor) {
-        if (userPoints.isEmpty()) {
-            return new ArrayList<>();
+    private record SearchContext(
+            Trace centeredUser,
+            Trace reversedUser,
+            Trace modelPoints,
+            FrechetDistanceCalculator calculator,
+            FrechetLowerBounds lowerBounds
+    ) {
+        Trace pointsFor(boolean isReversed) {
+            return isReversed ? reversedUser : centeredUser;
         }
+    }
 
-        List<Point> normalizedPoints = new ArrayList<>(userPoints.size());
-
-        for (Point p : userPoints) {
-            normalizedPoints.add(new Point(p.x() * scaleFactor, p.y() * scaleFactor));
-        }
+    // Minimum local du balayage grossier, candidat à l'affinage
+    private record Basin(boolean isReversed, double angle, double frechetDistance) {}
 
-        return normalizedPoints;
+    /**
+     * Adaptateur List&lt;Point&gt; de {@link #findOptimalRotation(Trace, Trace)}.
+     */
+    public RotationResult findOptimalRotation(List<Point> userPoints, List<Point> modelPoints) {
+        return findOptimalRotation(Trace.of(userPoints), Trace.of(modelPoints));
     }
 
-    public RotationResult findOptimalRotation(List<Point> userPoints, List<Point> modelPoints) {
+    /**
+     * Recherche l'angle qui minimise la distance de Fréchet entre le tracé utilisateur et le modèle.
+     * @throws CancellationException si le thread appelant est interrompu pendant la recherche.
+     */
+    public RotationResult findOptimalRotation(Trace userPoints, Trace modelPoints) {
         if (userPoints.isEmpty() || modelPoints.isEmpty()) {
-            return new RotationResult(0, Double.MAX_VALUE, 0, 1, new ArrayList<>());
+            return new RotationResult(0, Double.MAX_VALUE, 0, 1, new ArrayList<>(), new SearchStatistics(0, 0, 0, 0, 0, 0),
+                    false);
         }
+        return findOptimalRotation(userPoints, ModelTemplate.of(modelPoints));
+    }
+
+    /**
+     * Comme {@link #findOptimalRotation(Trace, Trace)}, avec un modèle déjà préparé (centre,
+     * copie centrée, longueur et bornes) : aucun calcul n'est refait côté modèle.
+     * @throws CancellationException si le thread appelant est interrompu pendant la recherche.
+     */
+    public RotationResult findOptimalRotation(Trace userPoints, ModelTemplate model) {
+        if (userPoints.isEmpty()) {
+            return new RotationResult(0, Double.MAX_VALUE, 0, 1, new ArrayList<>(), new SearchStatistics(0, 0, 0, 0, 0, 0),
+                    false);
+        }
+
+        long alignmentStart = metrics.start();
+        ScoringEvents.RotationSearch event = new ScoringEvents.RotationSearch();
+        event.begin();
 
         // 1. Calculer le facteur d'échelle basé sur la distance début-fin
-        double userLength = euclideanDistance(userPoints.get(0), userPoints.get(userPoints.size() - 1));
-        double modelLength = euclideanDistance(modelPoints.get(0), modelPoints.get(modelPoints.size() - 1));
+        double userLength = userPoints.endToEndLength();
+        double modelLength = model.length();
         double scaleFactor = (userLength > 1e-6) ? (modelLength / userLength) : 1.0;
 
-        // 2. Mettre à l'échelle le tracé utilisateur
-        List<Point> scaledUser = normalizePathScale(userPoints, scaleFactor);
-
-        // 3. Centrer les deux tracés à l'origine (0, 0)
+        // 2. Mettre à l'échelle le tracé utilisateur (copie : le tracé d'entrée n'est pas modifié)
+        Trace centeredUser = userPoints.scaleInto(scaleFactor, new Trace(userPoints.size()));
 
-        Point userCenter = getCenter(scaledUser);
-        Point modelCenter = getCenter(modelPoints);
+        // 3. Centrer les deux tracés à l'origine (0, 0) ; la rotation se fera autour de l'origine
 
-        List<Point> centeredUser = translatePoints(scaledUser, userCenter, true); // Soustraire le centre utilisateur
-        List<Point> centeredModel = translatePoints(modelPoints, modelCenter, true); // Soustraire le centre modèle
+        Point userCenter = centeredUser.centroid();
+        Point modelCenter = model.center();
 
-        // La rotation se fera autour de l'origine (0, 0)
-        Point rotationCenter = new Point(0, 0);
+        centeredUser.translate(-userCenter.x(), -userCenter.y()); // Soustraire le centre utilisateur (en place)
+        Trace centeredModel = model.centeredPoints(); // Modèle déjà centré
 
-        // 4. Préparer l'orientation inversée
-        List<Point> reversedUser = new ArrayList<>(centeredUser);
-        Collections.reverse(reversedUser);
+        // 4. Préparer l'orientation inversée (simple vue, sans copie)
+        Trace reversedUser = centeredUser.reversed();
 
         OptimizationState state = new OptimizationState();
 
         FrechetDistanceCalculator calculator = new FrechetDistanceCalculator();
 
+        SearchContext context = new SearchContext(centeredUser, reversedUser, centeredModel,
+                calculator, lowerBoundPruning ? model.lowerBounds() : null);
 
         // 5. Tester l'orientation originale et inversée
-        System.out.println("\n--- Testing ORIGINAL orientation ---");
-        testRotationsOnOrientation(centeredUser, centeredModel, rotationCenter, calculator, state, false);
-
-        System.out.println("\n--- Testing REVERSED orientation ---");
-        testRotationsOnOrientation(reversedUser, centeredModel, rotationCenter, calculator, state, true);
+        double tolerance = Double.isNaN(angularTolerance)
+                ? toleranceFromRadius(centeredUser)
+                : angularTolerance;
+
+        long sweepStart = metrics.start();
+        if (searchMode == SearchMode.COARSE_TO_FINE) {
+            searchCoarseToFine(context, state, tolerance);
+        } else if (searchMode == SearchMode.ANALYTIC) {
+            searchAnalytic(context, state, tolerance);
+        } else {
+            sweepExhaustive(context, state);
+        }
+        metrics.stop(ScoringMetrics.Phase.SWEEP, sweepStart);
 
         // 6. Finaliser les résultats
         double finalBestAngle = state.bestAngle;
         double finalBestFrechetDistance = state.bestFrechetDistance;
 
-        // 7. Re-translater le meilleur tracé rotaté pour le placer au centre du modèle
-        List<Point> finalRotatedPoints = translatePoints(state.bestRotatedPoints, modelCenter, false); // Additionner le centre modèle
-
-        System.out.println("\nBest angle found: " + finalBestAngle + "°");
-        System.out.println("Best Fréchet distance: " + finalBestFrechetDistance);
-
+        // 7. Seule la rotation gagnante est matérialisée, puis re-translatée au centre du modèle
+        List<Point> finalRotatedPoints = new ArrayList<>();
+        if (state.hasBest) {
+            Trace bestRotated = context.pointsFor(state.bestReversed)
+                    .rotateInto(state.bestCos, state.bestSin, new Trace(centeredUser.size()));
+            finalRotatedPoints = bestRotated.translate(modelCenter.x(), modelCenter.y())
+                    .toPoints(); // Additionner le centre modèle
+        }
 
+        ScoringMetrics.console(() -> "\nBest angle found: " + finalBestAngle + "°"
+                + "\nBest Fréchet distance: " + finalBestFrechetDistance);
 
         double normalizedAngle = finalBestAngle;
         if (normalizedAngle > 180) {
@@ -100,88 +354,398 @@ public class PathRotationOptimizer {
         }
 
         double normalizedAngleAbs = Math.abs(normalizedAngle);
-        System.out.println("normalizedAngle: " + normalizedAngleAbs);
+        ScoringMetrics.console(() -> "normalizedAngle: " + normalizedAngleAbs);
+
+        SearchStatistics statistics = state.statistics();
+        ScoringMetrics.console(() -> "Candidats: " + statistics.candidates()
+                + " | élagués (extrémités): " + statistics.prunedByEndpoints()
+                + " | élagués (boîtes): " + statistics.prunedByBoundingBox()
+                + " | abandonnés: " + statistics.abandoned()
+                + " | complets: " + statistics.fullEvaluations()
+                + " | élargissements: " + statistics.bandWidenings());
+        recordStatistics(statistics);
+        if (state.frechetTimes != null) {
+            metrics.record(ScoringMetrics.Phase.FRECHET, state.frechetTimes);
+        }
+        metrics.stop(ScoringMetrics.Phase.ALIGNMENT, alignmentStart);
+
+        if (event.shouldCommit()) {
+            event.traceLength = userPoints.size();
+            event.modelLength = model.size();
+            event.searchMode = searchMode.name();
+            event.candidates = statistics.candidates();
+            event.pruned = statistics.prunedByEndpoints() + statistics.prunedByBoundingBox();
+            event.abandoned = statistics.abandoned();
+            event.bestDistance = finalBestFrechetDistance;
+            event.commit();
+        }
 
-        return new RotationResult(normalizedAngle, finalBestFrechetDistance, normalizedAngleAbs, scaleFactor, finalRotatedPoints);
+        return new RotationResult(normalizedAngle, finalBestFrechetDistance, normalizedAngleAbs, scaleFactor,
+                finalRotatedPoints, statistics, state.hasBest && state.bestReversed);
     }
 
-    private void testRotationsOnOrientation(List<Point> pointsToRotate, List<Point> modelPoints,
-                                            Point center, FrechetDistanceCalculator calculator,
-                                            OptimizationState state, boolean isReversed) {
+    private void recordStatistics(SearchStatistics statistics) {
+        metrics.add(ScoringMetrics.Counter.CANDIDATES, statistics.candidates());
+        metrics.add(ScoringMetrics.Counter.PRUNED_BY_ENDPOINTS, statistics.prunedByEndpoints());
+        metrics.add(ScoringMetrics.Counter.PRUNED_BY_BOUNDING_BOX, statistics.prunedByBoundingBox());
+        metrics.add(ScoringMetrics.Counter.ABANDONED, statistics.abandoned());
+        metrics.add(ScoringMetrics.Counter.FULL_EVALUATIONS, statistics.fullEvaluations());
+        metrics.add(ScoringMetrics.Counter.BAND_WIDENINGS, statistics.bandWidenings());
+    }
 
-        for (double angle = 0; angle < 360; angle += ROTATION_STEP) {
-            List<Point> rotatedPoints = rotatePoints(pointsToRotate, center, angle);
+    /**
+     * Balayage complet des deux orientations tous les ROTATION_STEP degrés (mode de référence).
+     */
+    private void sweepExhaustive(SearchContext context, OptimizationState state) {
+        if (executor != null) {
+            ScoringMetrics.console(() -> "\n--- Testing ORIGINAL + REVERSED orientations (parallel) ---");
+            sweepInParallel(context, state);
+        } else {
+            ScoringMetrics.console(() -> "\n--- Testing ORIGINAL orientation ---");
+            long sweepStart = metrics.start();
+            testRotationsOnOrientation(context, state, false);
+            metrics.stop(ScoringMetrics.Phase.SWEEP_ORIGINAL, sweepStart);
+
+            ScoringMetrics.console(() -> "\n--- Testing REVERSED orientation ---");
+            sweepStart = metrics.start();
+            testRotationsOnOrientation(context, state, true);
+            metrics.stop(ScoringMetrics.Phase.SWEEP_REVERSED, sweepStart);
+        }
+    }
+
+    private void testRotationsOnOrientation(SearchContext context, OptimizationState state, boolean isReversed) {
 
+        for (int k = 0; k < SWEEP_STEPS; k++) {
+            double angle = k * ROTATION_STEP;
             // Note: Nous comparons centeredUser/reversedUser (rotaté) avec centeredModel.
-            double frechetDistance = calculator.calculateDiscreteFrechet(rotatedPoints, modelPoints);
+            // Mode mémoire linéaire avec abandon dès que la meilleure distance courante est dépassée.
+            double bound = state.bestFrechetDistance;
+            double frechetDistance = evaluateRotation(context, state, angle, SWEEP_COS[k], SWEEP_SIN[k],
+                    isReversed, bound);
 
             if (angle % 45 == 0) {
-                String orientation = isReversed ? "REVERSED" : "ORIGINAL";
-                System.out.println("Angle " + angle + "° (" + orientation + ") -> Fréchet: " + frechetDistance);
+                ScoringMetrics.console(() -> {
+                    String orientation = isReversed ? "REVERSED" : "ORIGINAL";
+                    String value = FrechetDistanceCalculator.exceedsBound(frechetDistance)
+                            ? ">= " + bound + " (abandon)"
+                            : String.valueOf(frechetDistance);
+                    return "Angle " + angle + "° (" + orientation + ") -> Fréchet: " + value;
+                });
             }
+        }
+    }
+
+    /**
+     * Balayage exhaustif des deux orientations réparti sur l'exécuteur.
+     * Les candidats (ORIGINAL puis REVERSED, angles croissants) sont découpés en segments contigus ;
+     * chaque segment garde son premier minimum et les segments sont fusionnés dans l'ordre,
+     * ce qui reproduit exactement le départage des égalités du mode séquentiel.
+     */
+    private void sweepInParallel(SearchContext context, OptimizationState state) {
+        int perOrientation = SWEEP_STEPS;
+        int total = 2 * perOrientation;
+        int segments = Math.min(total, parallelSegments());
+
+        // Meilleure distance connue de tous les segments, pour l'abandon anticipé
+        DoubleAccumulator sharedBest = new DoubleAccumulator(Math::min, Double.MAX_VALUE);
+
+        List<Callable<OptimizationState>> tasks = new ArrayList<>(segments);
+        for (int s = 0; s < segments; s++) {
+            int from = (int) ((long) total * s / segments);
+            int to = (int) ((long) total * (s + 1) / segments);
+
+            tasks.add(() -> {
+                OptimizationState local = new OptimizationState();
+                for (int index = from; index < to; index++) {
+                    boolean isReversed = index >= perOrientation;
+                    int k = index % perOrientation;
+
+                    // Borne partagée stricte (nextUp) : une égalité avec un autre segment
+                    // doit encore être évaluée, car elle peut gagner selon l'ordre séquentiel.
+                    double bound = Math.min(local.bestFrechetDistance, Math.nextUp(sharedBest.get()));
+                    evaluateRotation(context, local, k * ROTATION_STEP, SWEEP_COS[k], SWEEP_SIN[k], isReversed, bound);
+                    sharedBest.accumulate(local.bestFrechetDistance);
+                }
+                return local;
+            });
+        }
+
+        state.merge(runSegments(tasks));
+    }
 
-            if (frechetDistance < state.bestFrechetDistance) {
-                state.bestFrechetDistance = frechetDistance;
-                state.bestAngle = angle;
-                state.bestRotatedPoints = rotatedPoints;
+    /**
+     * Exécute des segments de candidats (en parallèle si un exécuteur est configuré)
+     * et fusionne leurs résultats dans l'ordre de la liste.
+     */
+    private OptimizationState runSegments(List<Callable<OptimizationState>> tasks) {
+        OptimizationState merged = new OptimizationState();
+        try {
+            if (executor == null) {
+                for (Callable<OptimizationState> task : tasks) {
+                    merged.merge(task.call());
+                }
+            } else {
+                for (Future<OptimizationState> future : executor.invokeAll(tasks)) {
+                    merged.merge(future.get());
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Optimisation de rotation interrompue");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Échec de l'optimisation de rotation", e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Échec de l'optimisation de rotation", e);
         }
+        return merged;
     }
 
+    /**
+     * Nombre de segments à créer : quelques-uns par thread pour équilibrer la charge
+     * (les segments abandonnés tôt finissent plus vite que les autres).
+     */
+    private int parallelSegments() {
+        if (executor == null) {
+            return 1;
+        }
+        int parallelism = (executor instanceof ForkJoinPool pool)
+                ? pool.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return 4 * parallelism;
+    }
 
-    private List<Point> rotatePoints(List<Point> points, Point center, double angleDegrees) {
-        double angleRadians = Math.toRadians(angleDegrees);
-        double cos = Math.cos(angleRadians);
-        double sin = Math.sin(angleRadians);
 
-        List<Point> rotated = new ArrayList<>(points.size());
+    /**
+     * Recherche multi-résolution : balayage grossier des deux orientations, sélection des
+     * meilleurs minima locaux (bassins), puis affinage de chacun par section dorée sur
+     * [angle - pas, angle + pas] jusqu'à la tolérance angulaire.
+     */
+    private void searchCoarseToFine(SearchContext context, OptimizationState state, double tolerance) {
+        int steps = Math.max(3, (int) Math.round(360.0 / coarseStep));
+        double step = 360.0 / steps;
+
+        // 1. Balayage grossier (valeurs exactes : il faut pouvoir comparer les voisins).
+        // Candidats indexés ORIGINAL puis REVERSED ; chaque segment écrit des cases disjointes.
+        double[][] coarse = new double[2][steps];
+        int total = 2 * steps;
+        int segments = Math.min(total, parallelSegments());
+        List<Callable<OptimizationState>> coarseTasks = new ArrayList<>(segments);
+        for (int s = 0; s < segments; s++) {
+            int from = (int) ((long) total * s / segments);
+            int to = (int) ((long) total * (s + 1) / segments);
+
+            coarseTasks.add(() -> {
+                OptimizationState local = new OptimizationState();
+                for (int index = from; index < to; index++) {
+                    boolean isReversed = index >= steps;
+                    int k = index % steps;
+                    coarse[isReversed ? 1 : 0][k] = evaluateAngle(context, local, k * step, isReversed,
+                            Double.POSITIVE_INFINITY);
+                }
+                return local;
+            });
+        }
+        state.merge(runSegments(coarseTasks));
+
+        // 2. Minima locaux sur la suite circulaire des angles
+        List<Basin> basins = new ArrayList<>();
+        for (boolean isReversed : new boolean[]{false, true}) {
+            double[] values = coarse[isReversed ? 1 : 0];
+            for (int k = 0; k < steps; k++) {
+                double previous = values[(k - 1 + steps) % steps];
+                double next = values[(k + 1) % steps];
+                if (values[k] <= previous && values[k] <= next) {
+                    basins.add(new Basin(isReversed, k * step, values[k]));
+                }
+            }
+        }
 
-        for (Point p : points) {
-            double dx = p.x() - center.x();
-            double dy = p.y() - center.y();
+        basins.sort(Comparator.comparingDouble(Basin::frechetDistance));
+        List<Basin> selected = basins.subList(0, Math.min(candidateBasins, basins.size()));
+
+        ScoringMetrics.console(() -> "\n--- Coarse-to-fine: " + basins.size() + " bassins, " + selected.size()
+                + " affinés (pas " + step + "°, tolérance " + tolerance + "°) ---");
+
+        // 3. Affinage de chaque bassin retenu (indépendants : un segment par bassin)
+        List<Callable<OptimizationState>> refineTasks = new ArrayList<>(selected.size());
+        for (Basin basin : selected) {
+            refineTasks.add(() -> {
+                OptimizationState local = new OptimizationState();
+                goldenSectionRefine(context, local, basin.isReversed(),
+                        basin.angle() - step, basin.angle() + step, tolerance);
+                return local;
+            });
+        }
+        state.merge(runSegments(refineTasks));
+
+        ScoringMetrics.console(() -> "Évaluations de Fréchet: " + state.evaluations);
+    }
+
+    /**
+     * Alignement analytique : les angles proposés par l'estimateur (ACP / Procrustes par défaut) sont
+     * évalués tels quels s'ils sont très sûrs, sinon affinés par section dorée sur une petite fenêtre.
+     * Si aucune estimation n'est assez fiable (tracé quasi circulaire...), on se replie sur le
+     * balayage exhaustif.
+     */
+    private void searchAnalytic(SearchContext context, OptimizationState state, double tolerance) {
+        List<AngleEstimator.AngleCandidate> candidates = new ArrayList<>();
+        for (AngleEstimator.AngleCandidate candidate
+                : angleEstimator.estimate(context.centeredUser(), context.reversedUser(), context.modelPoints())) {
+            if (candidate.confidence() >= MIN_ESTIMATE_CONFIDENCE) {
+                candidates.add(candidate);
+            }
+        }
 
-            double rotatedX = dx * cos - dy * sin;
-            double rotatedY = dx * sin + dy * cos;
+        if (candidates.isEmpty()) {
+            ScoringMetrics.console(() -> "\n--- Analytic alignment ambiguous: falling back to full sweep ---");
+            sweepExhaustive(context, state);
+            return;
+        }
 
-            rotated.add(new Point(
-                    rotatedX + center.x(),
-                    rotatedY + center.y()
-            ));
+        ScoringMetrics.console(() -> "\n--- Analytic alignment (" + angleEstimator.getClass().getSimpleName() + "): "
+                + candidates.size() + " candidats (fenêtre ±"
+                + ANALYTIC_WINDOW + "°, tolérance " + tolerance + "°) ---");
+
+        List<Callable<OptimizationState>> tasks = new ArrayList<>(candidates.size());
+        for (AngleEstimator.AngleCandidate candidate : candidates) {
+            tasks.add(() -> {
+                OptimizationState local = new OptimizationState();
+                // Le candidat lui-même d'abord : la section dorée ne l'évalue pas forcément
+                evaluateAngle(context, local, candidate.angle(), candidate.isReversed(), Double.POSITIVE_INFINITY);
+                if (candidate.confidence() >= skipRefinementConfidence) {
+                    return local;
+                }
+                goldenSectionRefine(context, local, candidate.isReversed(),
+                        candidate.angle() - ANALYTIC_WINDOW, candidate.angle() + ANALYTIC_WINDOW, tolerance);
+                return local;
+            });
         }
+        state.merge(runSegments(tasks));
 
-        return rotated;
+        ScoringMetrics.console(() -> "Évaluations de Fréchet: " + state.evaluations);
     }
 
     /**
-     * Translates a list of points by the inverse or direct coordinates of a center.
-     * @param subtract If true, subtracts the center coordinates (for centering to 0,0).
-     * If false, adds the center coordinates (for re-translation).
+     * Minimise la distance de Fréchet sur [lo, hi] par section dorée.
+     * Chaque évaluation met à jour l'état global si elle améliore le meilleur résultat.
      */
-    private List<Point> translatePoints(List<Point> points, Point center, boolean subtract) {
-        List<Point> translated = new ArrayList<>(points.size());
-        double sign = subtract ? -1.0 : 1.0;
-
-        for (Point p : points) {
-            translated.add(new Point(
-                    p.x() + sign * center.x(),
-                    p.y() + sign * center.y()
-            ));
+    private void goldenSectionRefine(SearchContext context, OptimizationState state, boolean isReversed,
+                                     double lo, double hi, double tolerance) {
+        double invPhi = (Math.sqrt(5) - 1) / 2;
+
+        double c = hi - invPhi * (hi - lo);
+        double d = lo + invPhi * (hi - lo);
+        double fc = evaluateAngle(context, state, c, isReversed, Double.POSITIVE_INFINITY);
+        double fd = evaluateAngle(context, state, d, isReversed, Double.POSITIVE_INFINITY);
+
+        while (hi - lo > tolerance) {
+            if (fc <= fd) {
+                hi = d;
+                d = c;
+                fd = fc;
+                c = hi - invPhi * (hi - lo);
+                fc = evaluateAngle(context, state, c, isReversed, Double.POSITIVE_INFINITY);
+            } else {
+                lo = c;
+                c = d;
+                fc = fd;
+                d = lo + invPhi * (hi - lo);
+                fd = evaluateAngle(context, state, d, isReversed, Double.POSITIVE_INFINITY);
+            }
         }
-        return translated;
     }
 
-    private Point getCenter(List<Point> points) {
-        double sumX = 0, sumY = 0;
-        for (Point p : points) {
-            sumX += p.x();
-            sumY += p.y();
+    /**
+     * Évalue un angle (ramené dans [0, 360[) et met à jour l'état si la distance est meilleure.
+     * Si la borne est finie, les bornes inférieures sont testées d'abord (de la moins chère à la
+     * plus chère) : l'angle est écarté sans rotation dès que l'une atteint la borne.
+     * @param upperBound Borne d'abandon passée au calcul de Fréchet.
+     * @return La distance de Fréchet, ou FrechetDistanceCalculator.EXCEEDS_BOUND.
+     */
+    private double evaluateAngle(SearchContext context, OptimizationState state, double angle, boolean isReversed,
+                                 double upperBound) {
+        angle = ((angle % 360) + 360) % 360;
+        double angleRadians = Math.toRadians(angle);
+        return evaluateRotation(context, state, angle, Math.cos(angleRadians), Math.sin(angleRadians),
+                isReversed, upperBound);
+    }
+
+    /**
+     * Cœur de {@link #evaluateAngle} pour un angle dans [0, 360[ dont le cosinus et le sinus sont
+     * déjà connus (table SWEEP_COS / SWEEP_SIN pour le balayage). Le tracé tourné est écrit dans le
+     * tampon du thread courant : seule la rotation gagnante est retenue.
+     */
+    private double evaluateRotation(SearchContext context, OptimizationState state, double angle,
+                                    double cos, double sin, boolean isReversed, double upperBound) {
+        // Point d'annulation : le thread appelant (ou un segment parallèle) a été interrompu
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Optimisation de rotation interrompue");
+        }
+
+        Trace pointsToRotate = context.pointsFor(isReversed);
+        state.evaluations++;
+
+        FrechetLowerBounds lowerBounds = context.lowerBounds();
+        if (lowerBounds != null && upperBound < Double.POSITIVE_INFINITY) {
+            if (lowerBounds.endpointBound(pointsToRotate, cos, sin) >= upperBound) {
+                state.prunedByEndpoints++;
+                return FrechetDistanceCalculator.EXCEEDS_BOUND;
+            }
+            if (lowerBounds.boundingBoxBound(pointsToRotate, cos, sin) >= upperBound) {
+                state.prunedByBoundingBox++;
+                return FrechetDistanceCalculator.EXCEEDS_BOUND;
+            }
+        }
+
+        Trace rotatedPoints = pointsToRotate.rotateInto(cos, sin, ROTATION_BUFFER.get());
+        // Chronométré dans l'état local du segment, sans accès concurrent à l'histogramme partagé
+        boolean timed = metrics.isEnabled();
+        long frechetStart = timed ? System.nanoTime() : 0;
+        Trace modelPoints = context.modelPoints();
+        double frechetDistance;
+        if (bandRadius > 0 && Math.min(rotatedPoints.size(), modelPoints.size()) >= BANDED_MIN_POINTS) {
+            frechetDistance = FrechetDistanceCalculator.calculateBandedFrechet(rotatedPoints, modelPoints, upperBound,
+                    bandRadius, FrechetDistanceCalculator.scratchFor(rotatedPoints.size(), modelPoints.size()),
+                    state.widenings);
+            state.bandWidenings += state.widenings[0];
+        } else {
+            frechetDistance = context.calculator().calculateDiscreteFrechet(rotatedPoints, modelPoints, upperBound);
+        }
+        if (timed) {
+            state.frechetTimes().record(System.nanoTime() - frechetStart);
+        }
+        if (FrechetDistanceCalculator.exceedsBound(frechetDistance)) {
+            state.abandoned++;
+        }
+
+        if (frechetDistance < state.bestFrechetDistance) {
+            state.bestFrechetDistance = frechetDistance;
+            state.bestAngle = angle;
+            state.hasBest = true;
+            state.bestReversed = isReversed;
+            state.bestCos = cos;
+            state.bestSin = sin;
         }
-        return new Point(sumX / points.size(), sumY / points.size());
+        return frechetDistance;
     }
 
-    private double euclideanDistance(Point p1, Point p2) {
-        double dx = p1.x() - p2.x();
-        double dy = p1.y() - p2.y();
-        return Math.sqrt(dx * dx + dy * dy);
+    /**
+     * Tolérance angulaire (en degrés) telle que le point le plus éloigné du centre
+     * ne se déplace pas de plus de MAX_POINT_DISPLACEMENT pixels.
+     */
+    private double toleranceFromRadius(Trace centeredPoints) {
+        double maxRadius = 0;
+        for (int i = 0; i < centeredPoints.size(); i++) {
+            maxRadius = Math.max(maxRadius, Math.hypot(centeredPoints.x(i), centeredPoints.y(i)));
+        }
+        if (maxRadius <= MAX_POINT_DISPLACEMENT) {
+            return ROTATION_STEP;
+        }
+        return Math.toDegrees(MAX_POINT_DISPLACEMENT / maxRadius);
     }
-}
\ No newline at end of file
+}
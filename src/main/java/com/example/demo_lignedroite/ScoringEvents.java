@@ -0,0 +1,141 @@
+package com.example.demo_lignedroite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Événements JDK Flight Recorder des étapes du calcul de score, à analyser avec les outils JFR
+ * standard (jfr print, JDK Mission Control) à côté des événements GC et d'allocation.
+ * <p>
+ * Utilisation : {@code event.begin()} avant l'étape, puis les champs ne sont remplis et
+ * l'événement validé que si {@code event.shouldCommit()} ; sans enregistrement en cours, le coût
+ * se réduit à ce test (l'objet événement est éliminé par le compilateur JIT).
+ * <pre>
+ * java -XX:StartFlightRecording=filename=scoring.jfr ...
+ * jfr print --events com.example.demo_lignedroite.Score scoring.jfr
+ * </pre>
+ */
+public final class ScoringEvents {
+
+    private static final String CATEGORY = "Ligne droite";
+
+    private ScoringEvents() {
+    }
+
+    @Name("com.example.demo_lignedroite.Score")
+    @Label("Score d'un tracé")
+    @Description("TraceScorer.score : sous-échantillonnage, modèle, rotation et pénalité de bruit")
+    @Category({CATEGORY, "Score"})
+    @StackTrace(false)
+    public static final class Score extends Event {
+        @Label("Longueur du tracé")
+        @Description("Nombre de points du tracé reçu")
+        public int traceLength;
+
+        @Label("Points retenus")
+        @Description("Nombre de points après sous-échantillonnage")
+        public int sampledLength;
+
+        @Label("Longueur du modèle")
+        @Description("Nombre de points du modèle")
+        public int modelLength;
+
+        @Label("Angles candidats")
+        public long candidates;
+
+        @Label("Candidats élagués")
+        @Description("Écartés par les bornes inférieures, sans calcul de Fréchet")
+        public long pruned;
+
+        @Label("Distance de Fréchet")
+        public double frechetDistance;
+
+        @Label("Score")
+        public double score;
+    }
+
+    @Name("com.example.demo_lignedroite.RotationSearch")
+    @Label("Recherche de rotation")
+    @Description("PathRotationOptimizer.findOptimalRotation")
+    @Category({CATEGORY, "Rotation"})
+    @StackTrace(false)
+    public static final class RotationSearch extends Event {
+        @Label("Longueur du tracé")
+        @Description("Nombre de points du tracé utilisateur")
+        public int traceLength;
+
+        @Label("Longueur du modèle")
+        @Description("Nombre de points du modèle")
+        public int modelLength;
+
+        @Label("Mode de recherche")
+        public String searchMode;
+
+        @Label("Angles candidats")
+        public long candidates;
+
+        @Label("Candidats élagués")
+        @Description("Écartés par les bornes inférieures, sans calcul de Fréchet")
+        public long pruned;
+
+        @Label("Calculs abandonnés")
+        public long abandoned;
+
+        @Label("Meilleure distance")
+        public double bestDistance;
+    }
+
+    /**
+     * Une évaluation de Fréchet : des milliers par score, seules les plus lentes sont enregistrées.
+     */
+    @Name("com.example.demo_lignedroite.FrechetEvaluation")
+    @Label("Calcul de Fréchet")
+    @Description("FrechetDistanceCalculator.calculateDiscreteFrechet / calculateBandedFrechet")
+    @Category({CATEGORY, "Fréchet"})
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static final class FrechetEvaluation extends Event {
+        @Label("Longueur du tracé")
+        @Description("Nombre de points de P (le tracé tourné, dans PathRotationOptimizer)")
+        public int traceLength;
+
+        @Label("Longueur du modèle")
+        @Description("Nombre de points de Q (le modèle, dans PathRotationOptimizer)")
+        public int modelLength;
+
+        @Label("Borne d'abandon")
+        public double upperBound;
+
+        @Label("Abandonné")
+        @Description("Le calcul s'est arrêté dès que la borne était dépassée")
+        public boolean abandoned;
+
+        @Label("Demi-largeur de bande")
+        @Description("Couloir final du mode en bande (0 : matrice complète)")
+        public int bandRadius;
+    }
+
+    @Name("com.example.demo_lignedroite.Simplification")
+    @Label("Douglas-Peucker")
+    @Description("DouglasPeuckerAnalyzer.analyze : simplification et pénalité de bruit")
+    @Category({CATEGORY, "Lissage"})
+    @StackTrace(false)
+    public static final class Simplification extends Event {
+        @Label("Longueur du tracé")
+        public int traceLength;
+
+        @Label("Points conservés")
+        public int simplifiedLength;
+
+        @Label("Epsilon")
+        public double epsilon;
+
+        @Label("Pénalité")
+        public double penalty;
+    }
+}
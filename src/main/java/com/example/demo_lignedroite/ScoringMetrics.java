@@ -0,0 +1,184 @@
+package com.example.demo_lignedroite;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Mesures du calcul de score : un chronomètre (histogramme de latences) par phase et des
+ * compteurs, partagés par tous les threads. Interrogeables par programme ({@link #snapshot()})
+ * et imprimables ({@link Snapshot#format()}).
+ * <p>
+ * Porte aussi l'interrupteur des traces console des calculs (System.out), actives par défaut
+ * pour l'interface et désactivables pour un serveur (propriété système
+ * {@code lignedroite.console=false} ou {@link #setConsoleOutput(boolean)}).
+ */
+public final class ScoringMetrics {
+
+    /**
+     * Phases chronométrées.
+     * SCORE : TraceScorer.score complet. SUBSAMPLE : copie / sous-échantillonnage du tracé.
+     * MODEL : obtention du modèle préparé. ALIGNMENT : recherche de la rotation complète.
+     * SWEEP : stratégie de recherche d'angle (toutes orientations) ; SWEEP_ORIGINAL /
+     * SWEEP_REVERSED : chaque orientation du balayage exhaustif séquentiel.
+     * FRECHET : une évaluation de Fréchet (enregistrées à la fin de chaque recherche d'angle).
+     * SIMPLIFICATION / PENALTY : Douglas-Peucker et pénalité de bruit.
+     */
+    public enum Phase {
+        SCORE, SUBSAMPLE, MODEL, ALIGNMENT, SWEEP, SWEEP_ORIGINAL, SWEEP_REVERSED, FRECHET, SIMPLIFICATION, PENALTY
+    }
+
+    /**
+     * Compteurs cumulés (CANDIDATES à BAND_WIDENINGS reprennent PathRotationOptimizer.SearchStatistics ;
+     * BAND_WIDENINGS : élargissements du couloir de FrechetDistanceCalculator.calculateBandedFrechet).
+     */
+    public enum Counter {
+        SCORES, CANDIDATES, PRUNED_BY_ENDPOINTS, PRUNED_BY_BOUNDING_BOX, ABANDONED, FULL_EVALUATIONS, BAND_WIDENINGS
+    }
+
+    /**
+     * Instantané de toutes les mesures.
+     */
+    public record Snapshot(Map<Phase, LatencyHistogram.Snapshot> timers, Map<Counter, Long> counters) {
+
+        /**
+         * Tableau texte : une ligne par phase mesurée (durées en millisecondes), puis les compteurs.
+         */
+        public String format() {
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                    "%-16s %10s %10s %10s %10s %10s %10s %10s%n",
+                    "phase", "count", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            for (Map.Entry<Phase, LatencyHistogram.Snapshot> entry : timers.entrySet()) {
+                LatencyHistogram.Snapshot timer = entry.getValue();
+                if (timer.count() == 0) {
+                    continue;
+                }
+                text.append(String.format(Locale.ROOT, "%-16s %10d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                        entry.getKey(), timer.count(), timer.meanNanos() / 1e6, timer.p50Nanos() / 1e6,
+                        timer.p90Nanos() / 1e6, timer.p99Nanos() / 1e6, timer.p999Nanos() / 1e6,
+                        timer.maxNanos() / 1e6));
+            }
+            for (Map.Entry<Counter, Long> entry : counters.entrySet()) {
+                text.append(String.format(Locale.ROOT, "%-24s %d%n", entry.getKey(), entry.getValue()));
+            }
+            return text.toString();
+        }
+    }
+
+    private static final ScoringMetrics GLOBAL = new ScoringMetrics();
+
+    private static volatile boolean consoleOutput =
+            !"false".equalsIgnoreCase(System.getProperty("lignedroite.console"));
+
+    private final EnumMap<Phase, LatencyHistogram> timers = new EnumMap<>(Phase.class);
+    private final EnumMap<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private volatile boolean enabled = true;
+
+    public ScoringMetrics() {
+        for (Phase phase : Phase.values()) {
+            timers.put(phase, new LatencyHistogram());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    /**
+     * Mesures de toute l'application : celles de TraceScorer, PathRotationOptimizer et
+     * DouglasPeuckerAnalyzer quand l'appelant n'en fournit pas d'autres.
+     */
+    public static ScoringMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Désactivées, les mesures ne lisent plus l'horloge et n'enregistrent plus rien.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Début d'une mesure, à passer à {@link #stop(Phase, long)} (0 si les mesures sont désactivées).
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis {@code start} pour la phase.
+     */
+    public void stop(Phase phase, long start) {
+        if (enabled) {
+            timers.get(phase).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Enregistre en une fois, pour la phase, les durées mesurées localement par un thread.
+     */
+    public void record(Phase phase, LatencyHistogram.Recorder recorder) {
+        if (enabled) {
+            timers.get(phase).record(recorder);
+        }
+    }
+
+    public void add(Counter counter, long delta) {
+        if (enabled) {
+            counters.get(counter).add(delta);
+        }
+    }
+
+    /**
+     * Chronomètre d'une phase, pour interroger directement ses percentiles.
+     */
+    public LatencyHistogram timer(Phase phase) {
+        return timers.get(phase);
+    }
+
+    public long count(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    public Snapshot snapshot() {
+        Map<Phase, LatencyHistogram.Snapshot> timerSnapshots = new EnumMap<>(Phase.class);
+        for (Map.Entry<Phase, LatencyHistogram> entry : timers.entrySet()) {
+            timerSnapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        Map<Counter, Long> counterValues = new EnumMap<>(Counter.class);
+        for (Map.Entry<Counter, LongAdder> entry : counters.entrySet()) {
+            counterValues.put(entry.getKey(), entry.getValue().sum());
+        }
+        return new Snapshot(timerSnapshots, counterValues);
+    }
+
+    public void reset() {
+        timers.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    // --- TRACES CONSOLE ---
+
+    public static void setConsoleOutput(boolean enabled) {
+        consoleOutput = enabled;
+    }
+
+    public static boolean consoleOutput() {
+        return consoleOutput;
+    }
+
+    /**
+     * Affiche le message sur la console si les traces sont actives ; le message n'est construit que dans ce cas.
+     */
+    public static void console(Supplier<String> message) {
+        if (consoleOutput) {
+            System.out.println(message.get());
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.example.demo_lignedroite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Reconnaissance de forme : compare un tracé à une bibliothèque de modèles (plusieurs centaines)
+ * et renvoie les k meilleurs, avec leur score.
+ * <p>
+ * Chaque modèle est noté comme par TraceScorer (mise à l'échelle par la distance début-fin,
+ * centrage, rotation optimale par PathRotationOptimizer), tracé et modèle étant rééchantillonnés
+ * en TEMPLATE_POINTS points. Le classement se fait sur la distance rapportée à la longueur du
+ * modèle (le score en dépend seul). Pour éviter la recherche de rotation sur la plupart des
+ * modèles, deux bornes inférieures de cette distance, valables pour toute rotation autour du
+ * centre, sont testées d'abord :
+ * <ul>
+ *   <li>caractéristiques : rayons (distance au centre) des extrémités, rayon maximal et minimal.
+ *   Un couplage apparie les extrémités entre elles et chaque point à au moins un point : la
+ *   distance est au moins l'écart de chacune (norme L∞). Les modèles sont rangés dans un arbre
+ *   k-d sur ces caractéristiques, parcouru du plus prometteur au moins prometteur : la recherche
+ *   s'arrête dès que la borne atteint le k-ième meilleur résultat, sans voir les autres modèles ;</li>
+ *   <li>profil radial : la distance de Fréchet entre les suites de rayons minore celle entre les
+ *   tracés (| |a| - |b| | &lt;= |a - b|), quelle que soit la rotation.</li>
+ * </ul>
+ * Le résultat est celui de l'évaluation complète de tous les modèles (voir {@link #setPruning(boolean)}).
+ */
+public class ShapeRecognizer {
+
+    // Points des modèles et du tracé comparé (rééchantillonnés le long de la courbe)
+    public static final int TEMPLATE_POINTS = 64;
+
+    // Au-delà de cette distance (rapportée à la longueur du modèle), le score est nul (voir TraceScorer.scoreFromDistance)
+    private static final double MAX_RELATIVE_DISTANCE = 0.25;
+
+    // Marge relative des bornes, calculées dans un autre ordre que la distance elle-même
+    private static final double BOUND_MARGIN = 1e-9;
+
+    private static final int LEAF_SIZE = 8;
+    private static final int FEATURES = 4;
+
+    /**
+     * @param score Score (0 à 100) du tracé par rapport à ce modèle.
+     * @param frechetDistance Distance de Fréchet dans le repère du modèle.
+     * @param angle Rotation appliquée au tracé (en degrés).
+     */
+    public record Match(String name, double score, double frechetDistance, double angle) {}
+
+    /**
+     * @param matches Les meilleurs modèles, du meilleur score au moins bon (scores nuls exclus).
+     * @param libraryCount Taille de la bibliothèque.
+     * @param evaluated Modèles pour lesquels la recherche de rotation a été lancée.
+     */
+    public record Recognition(List<Match> matches, int libraryCount, int evaluated) {}
+
+    private record Entry(int index, String name, ModelTemplate template, double[] features, Trace radialProfile) {}
+
+    // Candidat de la recherche : un nœud de l'arbre ou un modèle, avec sa borne inférieure
+    private record Candidate(double bound, Node node, Entry entry) {}
+
+    private record Result(Entry entry, double relativeDistance, PathRotationOptimizer.RotationResult rotation) {}
+
+    /**
+     * Nœud de l'arbre k-d : boîte englobante des caractéristiques de ses modèles, puis deux
+     * enfants, ou les modèles eux-mêmes pour une feuille.
+     */
+    private static final class Node {
+        final double[] min = new double[FEATURES];
+        final double[] max = new double[FEATURES];
+        Node low, high;
+        List<Entry> entries;
+    }
+
+    private final PathRotationOptimizer optimizer;
+    private final List<Entry> entries = new ArrayList<>();
+    private Node root; // Reconstruit au besoin après un ajout
+    private boolean pruning = true;
+
+    public ShapeRecognizer() {
+        this(new PathRotationOptimizer());
+    }
+
+    /**
+     * @param optimizer Recherche de rotation utilisée pour chaque modèle retenu.
+     */
+    public ShapeRecognizer(PathRotationOptimizer optimizer) {
+        this.optimizer = optimizer;
+    }
+
+    /**
+     * Ajoute un modèle (le tracé est rééchantillonné, il n'est pas conservé).
+     * @throws IllegalArgumentException si le modèle a moins de 2 points ou revient à son point de départ.
+     */
+    public synchronized void add(String name, Trace modelPoints) {
+        if (modelPoints.size() < 2) {
+            throw new IllegalArgumentException("Le modèle doit contenir au moins deux points : " + name);
+        }
+        ModelTemplate template = ModelTemplate.of(ArcLengthResampler.resample(modelPoints, TEMPLATE_POINTS));
+        if (!(template.length() > 1e-6)) {
+            throw new IllegalArgumentException("Modèle fermé (début = fin), sans échelle de référence : " + name);
+        }
+        Trace radialProfile = radialProfile(template.centeredPoints(), 1 / template.length());
+        entries.add(new Entry(entries.size(), name, template, features(radialProfile), radialProfile));
+        root = null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Sans élagage, la recherche de rotation est lancée sur tous les modèles (mode de référence) :
+     * le résultat doit être le même.
+     */
+    public void setPruning(boolean pruning) {
+        this.pruning = pruning;
+    }
+
+    /**
+     * Les {@code k} modèles les plus proches du tracé.
+     */
+    public Recognition recognize(Trace userPoints, int k) {
+        Node tree = index();
+        int libraryCount = size();
+        if (k < 1 || tree == null || userPoints.size() < 2) {
+            return new Recognition(List.of(), libraryCount, 0);
+        }
+
+        Trace user = ArcLengthResampler.resample(userPoints, TEMPLATE_POINTS);
+        Point center = user.centroid();
+        Trace centeredUser = user.translateInto(-center.x(), -center.y(), new Trace(user.size()));
+        // Même échelle que PathRotationOptimizer : début-fin du tracé = début-fin du modèle.
+        // Tracé fermé : l'échelle dépend du modèle, les bornes ne s'appliquent pas (0), comme sans élagage.
+        double userLength = user.endToEndLength();
+        boolean bounded = pruning && userLength > 1e-6;
+        Trace userProfile = bounded ? radialProfile(centeredUser, 1 / userLength) : null;
+        double[] userFeatures = bounded ? features(userProfile) : null;
+
+        // Meilleurs résultats, triés ; le dernier fixe la borne d'élagage une fois k trouvés
+        Comparator<Result> byDistance = Comparator.comparingDouble(Result::relativeDistance)
+                .thenComparingInt(result -> result.entry().index());
+        List<Result> best = new ArrayList<>();
+        int evaluated = 0;
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingDouble(Candidate::bound)
+                .thenComparingInt(candidate -> candidate.entry() == null ? -1 : candidate.entry().index()));
+        queue.add(new Candidate(bounded ? boxBound(tree, userFeatures) : 0, tree, null));
+
+        while (!queue.isEmpty()) {
+            double limit = (best.size() < k) ? MAX_RELATIVE_DISTANCE
+                    : Math.min(MAX_RELATIVE_DISTANCE, best.get(k - 1).relativeDistance());
+            Candidate candidate = queue.poll();
+            if (candidate.bound() > limit * (1 + BOUND_MARGIN)) {
+                break; // Tous les candidats restants ont une borne au moins aussi grande
+            }
+
+            if (candidate.node() != null) {
+                Node node = candidate.node();
+                if (node.entries != null) {
+                    for (Entry entry : node.entries) {
+                        queue.add(new Candidate(bounded ? featureBound(entry.features(), userFeatures) : 0, null, entry));
+                    }
+                } else {
+                    queue.add(new Candidate(bounded ? boxBound(node.low, userFeatures) : 0, node.low, null));
+                    queue.add(new Candidate(bounded ? boxBound(node.high, userFeatures) : 0, node.high, null));
+                }
+                continue;
+            }
+
+            Entry entry = candidate.entry();
+            if (bounded && radialBound(userProfile, entry.radialProfile(), limit * (1 + BOUND_MARGIN))
+                    > limit * (1 + BOUND_MARGIN)) {
+                continue;
+            }
+
+            evaluated++;
+            PathRotationOptimizer.RotationResult rotation = optimizer.findOptimalRotation(user, entry.template());
+            double relativeDistance = rotation.bestFrechetDistance() / entry.template().length();
+            if (relativeDistance < MAX_RELATIVE_DISTANCE) {
+                Result result = new Result(entry, relativeDistance, rotation);
+                int position = Collections.binarySearch(best, result, byDistance);
+                best.add((position >= 0) ? position : -position - 1, result);
+                if (best.size() > k) {
+                    best.remove(k);
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best.size());
+        for (Result result : best) {
+            double length = result.entry().template().length();
+            matches.add(new Match(result.entry().name(),
+                    TraceScorer.scoreFromDistance(result.rotation().bestFrechetDistance(), length),
+                    result.rotation().bestFrechetDistance(), result.rotation().bestAngle()));
+        }
+        return new Recognition(matches, libraryCount, evaluated);
+    }
+
+    // --- BORNES INFÉRIEURES ---
+
+    /**
+     * Rayons (distances au centre) des points centrés, multipliés par {@code scale}, sous forme
+     * de tracé sur l'axe des x : la distance de Fréchet entre deux profils est celle des suites de rayons.
+     */
+    private static Trace radialProfile(Trace centeredPoints, double scale) {
+        Trace profile = new Trace(centeredPoints.size());
+        for (int i = 0; i < centeredPoints.size(); i++) {
+            profile.set(i, Math.hypot(centeredPoints.x(i), centeredPoints.y(i)) * scale, 0);
+        }
+        return profile;
+    }
+
+    /**
+     * Rayons des extrémités (le plus petit puis le plus grand : le sens de parcours est libre),
+     * rayon maximal et rayon minimal.
+     */
+    private static double[] features(Trace profile) {
+        double first = profile.x(0);
+        double last = profile.x(profile.size() - 1);
+        double maxRadius = 0, minRadius = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < profile.size(); i++) {
+            maxRadius = Math.max(maxRadius, profile.x(i));
+            minRadius = Math.min(minRadius, profile.x(i));
+        }
+        return new double[]{Math.min(first, last), Math.max(first, last), maxRadius, minRadius};
+    }
+
+    private static double featureBound(double[] features, double[] query) {
+        double bound = 0;
+        for (int d = 0; d < FEATURES; d++) {
+            bound = Math.max(bound, Math.abs(features[d] - query[d]));
+        }
+        return bound;
+    }
+
+    /**
+     * Plus petite borne des modèles d'un nœud : écart de la requête à la boîte englobante.
+     */
+    private static double boxBound(Node node, double[] query) {
+        double bound = 0;
+        for (int d = 0; d < FEATURES; d++) {
+            bound = Math.max(bound, Math.max(0, Math.max(node.min[d] - query[d], query[d] - node.max[d])));
+        }
+        return bound;
+    }
+
+    /**
+     * Fréchet entre profils radiaux, dans les deux sens de parcours du tracé (abandon au-delà de {@code limit}).
+     */
+    private static double radialBound(Trace userProfile, Trace modelProfile, double limit) {
+        double original = FrechetDistanceCalculator.calculateDiscreteFrechet(userProfile, modelProfile, limit);
+        double reversed = FrechetDistanceCalculator.calculateDiscreteFrechet(userProfile.reversed(), modelProfile,
+                Math.min(limit, original));
+        return Math.min(original, reversed);
+    }
+
+    // --- ARBRE K-D ---
+
+    private synchronized Node index() {
+        if (root == null && !entries.isEmpty()) {
+            root = build(new ArrayList<>(entries));
+        }
+        return root;
+    }
+
+    /**
+     * Coupe à la médiane de la caractéristique la plus étalée, jusqu'à LEAF_SIZE modèles par feuille.
+     */
+    private static Node build(List<Entry> group) {
+        Node node = new Node();
+        Arrays.fill(node.min, Double.POSITIVE_INFINITY);
+        Arrays.fill(node.max, Double.NEGATIVE_INFINITY);
+        for (Entry entry : group) {
+            for (int d = 0; d < FEATURES; d++) {
+                node.min[d] = Math.min(node.min[d], entry.features()[d]);
+                node.max[d] = Math.max(node.max[d], entry.features()[d]);
+            }
+        }
+        if (group.size() <= LEAF_SIZE) {
+            node.entries = group;
+            return node;
+        }
+
+        int axis = 0;
+        for (int d = 1; d < FEATURES; d++) {
+            if (node.max[d] - node.min[d] > node.max[axis] - node.min[axis]) {
+                axis = d;
+            }
+        }
+        int splitAxis = axis;
+        group.sort(Comparator.comparingDouble(entry -> entry.features()[splitAxis]));
+        int middle = group.size() / 2;
+        node.low = build(new ArrayList<>(group.subList(0, middle)));
+        node.high = build(new ArrayList<>(group.subList(middle, group.size())));
+        return node;
+    }
+
+    // --- BIBLIOTHÈQUE PAR DÉFAUT ---
+
+    /**
+     * Bibliothèque des formes de PathGenerator (ligne, arcs, sinusoïdes, lignes à pics, ligne
+     * qui revient en arrière) à plusieurs courbures, fréquences, amplitudes et dans les deux sens :
+     * quelques centaines de modèles. Les dimensions sont données en fraction de la longueur.
+     */
+    public static ShapeRecognizer standardLibrary() {
+        return standardLibrary(new PathRotationOptimizer());
+    }
+
+    /**
+     * Bibliothèque standard, avec la recherche de rotation {@code optimizer}.
+     * @see #standardLibrary()
+     */
+    public static ShapeRecognizer standardLibrary(PathRotationOptimizer optimizer) {
+        ShapeRecognizer recognizer = new ShapeRecognizer(optimizer);
+        PathGenerator generator = new PathGenerator(0);
+        Point start = new Point(0, 0);
+        Point end = new Point(300, 0);
+        double length = 300;
+        int steps = 400;
+
+        recognizer.add("ligne", Trace.of(generator.generatePerfectLine(start, end, steps)));
+        recognizer.add("aller-retour", Trace.of(generator.generateOverlappingLine(start, end, steps, 0.2)));
+        for (int c = 1; c <= 12; c++) {
+            for (int sign : new int[]{1, -1}) {
+                double curvature = sign * 0.05 * c;
+                recognizer.add(String.format(Locale.ROOT, "arc %+.2f", curvature),
+                        Trace.of(generator.generateArc(start, end, steps, curvature * length)));
+            }
+        }
+        for (int f = 1; f <= 12; f++) {
+            for (double amplitude : new double[]{0.05, 0.1, 0.15, 0.2, 0.3}) {
+                for (int sign : new int[]{1, -1}) {
+                    double frequency = 0.5 * f;
+                    recognizer.add(String.format(Locale.ROOT, "sinusoïde %.1f × %+.2f", frequency, sign * amplitude),
+                            Trace.of(generator.generateSinusoid(start, end, steps, frequency, sign * amplitude * length)));
+                }
+            }
+        }
+        for (int spikes = 1; spikes <= 10; spikes++) {
+            for (double height : new double[]{0.05, 0.1, 0.2, 0.3}) {
+                for (int sign : new int[]{1, -1}) {
+                    recognizer.add(String.format(Locale.ROOT, "pics %d × %+.2f", spikes, sign * height),
+                            Trace.of(generator.generateSpikyLine(start, end, steps, spikes, sign * height * length)));
+                }
+            }
+        }
+        return recognizer;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.demo_lignedroite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracé stocké en « structure de tableaux » : deux tableaux primitifs xs / ys au lieu d'une
+ * liste de Point. Les transformations (échelle, translation, rotation) existent en place ou
+ * vers un tracé destination réutilisable, et l'inversion du sens de parcours est une simple vue.
+ * C'est le type manipulé par les boucles de calcul (Fréchet, Douglas-Peucker, rotation) ;
+ * les API en List&lt;Point&gt; ne sont plus que des adaptateurs.
+ */
+public final class Trace {
+
+    private double[] xs;
+    private double[] ys;
+    private int size;
+
+    // Vue inversée : l'indice logique i correspond à l'indice physique size - 1 - i
+    private final boolean reversed;
+
+    /**
+     * Crée un tracé de {@code size} points, tous à l'origine.
+     */
+    public Trace(int size) {
+        this(new double[size], new double[size], size, false);
+    }
+
+    /**
+     * Crée un tracé qui utilise directement les tableaux fournis (sans copie).
+     */
+    public Trace(double[] xs, double[] ys) {
+        this(xs, ys, checkedSize(xs, ys), false);
+    }
+
+    private Trace(double[] xs, double[] ys, int size, boolean reversed) {
+        this.xs = xs;
+        this.ys = ys;
+        this.size = size;
+        this.reversed = reversed;
+    }
+
+    private static int checkedSize(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Tableaux de tailles différentes : " + xs.length + " / " + ys.length);
+        }
+        return xs.length;
+    }
+
+    // --- CONVERSIONS ---
+
+    /**
+     * Copie une liste de points dans un nouveau tracé.
+     */
+    public static Trace of(List<Point> points) {
+        int n = points.size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            Point p = points.get(i);
+            xs[i] = p.x();
+            ys[i] = p.y();
+        }
+        return new Trace(xs, ys);
+    }
+
+    /**
+     * Matérialise le tracé (dans son ordre logique) en liste de points.
+     */
+    public List<Point> toPoints() {
+        List<Point> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(new Point(x(i), y(i)));
+        }
+        return points;
+    }
+
+    /**
+     * Copie indépendante, dans l'ordre logique (une vue inversée devient un tracé normal).
+     */
+    public Trace copy() {
+        return copyInto(new Trace(size));
+    }
+
+    /**
+     * Copie le tracé dans {@code dest} (redimensionné si besoin) et renvoie {@code dest}.
+     */
+    public Trace copyInto(Trace dest) {
+        dest.resize(size);
+        for (int i = 0; i < size; i++) {
+            dest.set(i, x(i), y(i));
+        }
+        return dest;
+    }
+
+    // --- ACCÈS ---
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double x(int i) {
+        return xs[reversed ? size - 1 - i : i];
+    }
+
+    public double y(int i) {
+        return ys[reversed ? size - 1 - i : i];
+    }
+
+    /**
+     * Vue inversée : les tableaux physiques ({@link #xArray()}) sont alors en ordre inverse.
+     */
+    boolean isReversedView() {
+        return reversed;
+    }
+
+    /**
+     * Tableau physique des x, pour les noyaux de calcul par lots (VectorKernels) ; indices
+     * physiques, seules les {@code size()} premières cases sont valides.
+     */
+    double[] xArray() {
+        return xs;
+    }
+
+    double[] yArray() {
+        return ys;
+    }
+
+    public Point get(int i) {
+        return new Point(x(i), y(i));
+    }
+
+    public void set(int i, double x, double y) {
+        int index = reversed ? size - 1 - i : i;
+        xs[index] = x;
+        ys[index] = y;
+    }
+
+    public Point first() {
+        return get(0);
+    }
+
+    public Point last() {
+        return get(size - 1);
+    }
+
+    /**
+     * Fixe le nombre de points ; les tableaux ne sont réalloués que si leur capacité est insuffisante.
+     * Permet de réutiliser un même tracé comme tampon de destination.
+     */
+    public void resize(int newSize) {
+        if (reversed) {
+            throw new IllegalStateException("Une vue inversée ne peut pas être redimensionnée");
+        }
+        if (xs.length < newSize) {
+            xs = new double[newSize];
+            ys = new double[newSize];
+        }
+        size = newSize;
+    }
+
+    /**
+     * Vue parcourant le même tracé en sens inverse, sans copie (les écritures sont partagées).
+     */
+    public Trace reversed() {
+        return new Trace(xs, ys, size, !reversed);
+    }
+
+    // --- TRANSFORMATIONS EN PLACE ---
+
+    public Trace scale(double factor) {
+        for (int i = 0; i < size; i++) {
+            xs[i] *= factor;
+            ys[i] *= factor;
+        }
+        return this;
+    }
+
+    public Trace translate(double dx, double dy) {
+        for (int i = 0; i < size; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+        }
+        return this;
+    }
+
+    /**
+     * Rotation autour de l'origine, donnée par son cosinus et son sinus.
+     */
+    public Trace rotate(double cos, double sin) {
+        if (VectorKernels.ENABLED && size >= VectorKernels.MIN_BATCH) {
+            VectorKernels.rotate(xs, ys, size, cos, sin, xs, ys);
+            return this;
+        }
+        for (int i = 0; i < size; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            xs[i] = x * cos - y * sin;
+            ys[i] = x * sin + y * cos;
+        }
+        return this;
+    }
+
+    // --- TRANSFORMATIONS VERS UNE DESTINATION ---
+
+    /**
+     * Écrit le tracé mis à l'échelle dans {@code dest} (redimensionné si besoin) et renvoie {@code dest}.
+     */
+    public Trace scaleInto(double factor, Trace dest) {
+        dest.resize(size);
+        for (int i = 0; i < size; i++) {
+            dest.set(i, x(i) * factor, y(i) * factor);
+        }
+        return dest;
+    }
+
+    /**
+     * Écrit le tracé translaté dans {@code dest} (redimensionné si besoin) et renvoie {@code dest}.
+     */
+    public Trace translateInto(double dx, double dy, Trace dest) {
+        dest.resize(size);
+        for (int i = 0; i < size; i++) {
+            dest.set(i, x(i) + dx, y(i) + dy);
+        }
+        return dest;
+    }
+
+    /**
+     * Écrit le tracé tourné autour de l'origine dans {@code dest} (redimensionné si besoin)
+     * et renvoie {@code dest}. {@code dest} ne doit pas partager les tableaux de ce tracé.
+     */
+    public Trace rotateInto(double cos, double sin, Trace dest) {
+        dest.resize(size);
+        if (VectorKernels.ENABLED && !dest.reversed && size >= VectorKernels.MIN_BATCH) {
+            // Rotation dans l'ordre physique ; celui d'une vue inversée est ensuite retourné
+            VectorKernels.rotate(xs, ys, size, cos, sin, dest.xs, dest.ys);
+            if (reversed) {
+                dest.reverseStorage();
+            }
+            return dest;
+        }
+        for (int i = 0; i < size; i++) {
+            double x = x(i);
+            double y = y(i);
+            dest.set(i, x * cos - y * sin, x * sin + y * cos);
+        }
+        return dest;
+    }
+
+    private void reverseStorage() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            double x = xs[i];
+            xs[i] = xs[j];
+            xs[j] = x;
+            double y = ys[i];
+            ys[i] = ys[j];
+            ys[j] = y;
+        }
+    }
+
+    // --- MESURES ---
+
+    /**
+     * Centre de gravité (moyenne des points).
+     */
+    public Point centroid() {
+        double sumX = 0, sumY = 0;
+        for (int i = 0; i < size; i++) {
+            sumX += x(i);
+            sumY += y(i);
+        }
+        return new Point(sumX / size, sumY / size);
+    }
+
+    /**
+     * Longueur de la ligne brisée (somme des longueurs des segments).
+     */
+    public double pathLength() {
+        double length = 0;
+        for (int i = 1; i < size; i++) {
+            length += Math.hypot(x(i) - x(i - 1), y(i) - y(i - 1));
+        }
+        return length;
+    }
+
+    /**
+     * Distance entre le premier et le dernier point.
+     */
+    public double endToEndLength() {
+        double dx = x(0) - x(size - 1);
+        double dy = y(0) - y(size - 1);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo_lignedroite;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lecture d'un corpus binaire de tracés (écrit par TraceCorpusWriter), projeté en mémoire.
+ * <p>
+ * Format (petit-boutiste) :
+ * <pre>
+ * en-tête   : magic "TRC1" (int) | version (int) | résolution (double, unités par pixel)
+ *             | nombre de tracés (long) | position de l'index (long)
+ * tracé     : longueur de l'id (varint) | id UTF-8 | nombre de points (varint)
+ *             | x0, y0 (varint zig-zag, absolus) | dx, dy ... (varint zig-zag, deltas)
+ * index     : position de chaque tracé (long), dans l'ordre d'écriture
+ * </pre>
+ * Les coordonnées sont quantifiées (1 / résolution pixel) puis codées en différences
+ * successives : un tracé à main levée tient en quelques octets par point (contre 16 en double).
+ * <p>
+ * Le fichier entier est projeté via l'API FFM (MemorySegment, sans limite de 2 Go) : aucun
+ * texte n'est analysé et aucun Point n'est créé, les coordonnées sont décodées directement
+ * dans un Trace (réutilisable). La lecture est sûre entre threads.
+ */
+public final class TraceCorpus implements AutoCloseable {
+
+    static final int MAGIC = 0x31435254; // "TRC1" en petit-boutiste
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final double resolution;
+    private final long size;
+    private final long indexOffset;
+
+    // Index identifiant -> rang, construit à la première recherche par identifiant
+    private volatile Map<String, Long> idIndex;
+
+    private TraceCorpus(Arena arena, MemorySegment segment) {
+        this.arena = arena;
+        this.segment = segment;
+
+        if (segment.byteSize() < HEADER_SIZE || segment.get(INT, 0) != MAGIC) {
+            throw new IllegalArgumentException("Ce fichier n'est pas un corpus de tracés");
+        }
+        int version = segment.get(INT, 4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Version de corpus non prise en charge : " + version);
+        }
+        this.resolution = segment.get(DOUBLE, 8);
+        this.size = segment.get(LONG, 16);
+        this.indexOffset = segment.get(LONG, 24);
+        if (indexOffset < HEADER_SIZE || indexOffset + size * Long.BYTES > segment.byteSize()) {
+            throw new IllegalArgumentException("Index du corpus incohérent (fichier tronqué ?)");
+        }
+    }
+
+    /**
+     * Projette le fichier en mémoire (lecture seule). À fermer pour libérer la projection.
+     */
+    public static TraceCorpus open(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new TraceCorpus(arena, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena));
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Nombre de tracés du corpus.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Résolution de quantification (unités par pixel) : les coordonnées sont exactes à 1 / (2 · résolution) près.
+     */
+    public double resolution() {
+        return resolution;
+    }
+
+    /**
+     * Identifiant du tracé de rang {@code index}.
+     */
+    public String id(long index) {
+        Cursor cursor = new Cursor(recordOffset(index));
+        int length = (int) cursor.readVarLong();
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, cursor.position, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Nombre de points du tracé de rang {@code index}, sans le décoder.
+     */
+    public int pointCount(long index) {
+        Cursor cursor = new Cursor(recordOffset(index));
+        cursor.skipId();
+        return (int) cursor.readVarLong();
+    }
+
+    /**
+     * Décode le tracé de rang {@code index} dans un nouveau Trace.
+     */
+    public Trace read(long index) {
+        return read(index, new Trace(0));
+    }
+
+    /**
+     * Décode le tracé de rang {@code index} dans {@code dest} (redimensionné si besoin) et renvoie {@code dest}.
+     */
+    public Trace read(long index, Trace dest) {
+        Cursor cursor = new Cursor(recordOffset(index));
+        cursor.skipId();
+
+        int count = (int) cursor.readVarLong();
+        dest.resize(count);
+
+        long x = 0, y = 0;
+        for (int i = 0; i < count; i++) {
+            x += cursor.readZigZag();
+            y += cursor.readZigZag();
+            dest.set(i, x / resolution, y / resolution);
+        }
+        return dest;
+    }
+
+    /**
+     * Rang du tracé d'identifiant {@code id}, ou -1 s'il est absent.
+     * La première recherche parcourt tout le corpus pour construire l'index des identifiants.
+     */
+    public long indexOf(String id) {
+        Map<String, Long> index = idIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = idIndex;
+                if (index == null) {
+                    index = new HashMap<>();
+                    for (long i = 0; i < size; i++) {
+                        index.putIfAbsent(id(i), i);
+                    }
+                    idIndex = index;
+                }
+            }
+        }
+        return index.getOrDefault(id, -1L);
+    }
+
+    /**
+     * Libère la projection : les tracés déjà décodés restent valides, plus aucune lecture n'est possible.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long recordOffset(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Tracé " + index + " hors du corpus (" + size + " tracés)");
+        }
+        return segment.get(LONG, indexOffset + index * Long.BYTES);
+    }
+
+    /**
+     * Position de lecture courante dans la projection.
+     */
+    private final class Cursor {
+        long position;
+
+        Cursor(long position) {
+            this.position = position;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = segment.get(ValueLayout.JAVA_BYTE, position++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Entier variable invalide à la position " + position);
+        }
+
+        void skipId() {
+            long length = readVarLong();
+            position += length;
+        }
+
+        long readZigZag() {
+            long encoded = readVarLong();
+            return (encoded >>> 1) ^ -(encoded & 1);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.demo_lignedroite;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Écriture séquentielle d'un corpus binaire de tracés (format décrit dans TraceCorpus).
+ * Accepte aussi bien les tracés de PathGenerator que les tracés capturés (List&lt;Point&gt; ou Trace).
+ * L'index et l'en-tête définitif ne sont écrits qu'à la fermeture : un fichier non fermé est rejeté
+ * à la lecture.
+ * <p>
+ * Conversion d'un fichier texte (CSV ou JSON lines, voir TraceRecordParser) :
+ * <pre>
+ * java -cp ... com.example.demo_lignedroite.TraceCorpusWriter traces.jsonl traces.trc
+ * </pre>
+ */
+public final class TraceCorpusWriter implements AutoCloseable {
+
+    // Résolution par défaut : 1/1024 de pixel (puissance de 2, le décodage est exact)
+    public static final double DEFAULT_RESOLUTION = 1024;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Taille maximale d'un entier variable de 64 bits
+    private static final int MAX_VARLONG_BYTES = 10;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final double resolution;
+
+    private long position = TraceCorpus.HEADER_SIZE;
+    private long[] offsets = new long[1024];
+    private long count = 0;
+
+    public TraceCorpusWriter(Path path) throws IOException {
+        this(path, DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * @param resolution Unités de quantification par pixel (les coordonnées sont arrondies à 1 / resolution).
+     */
+    public TraceCorpusWriter(Path path, double resolution) throws IOException {
+        if (!(resolution > 0)) {
+            throw new IllegalArgumentException("La résolution doit être positive : " + resolution);
+        }
+        this.resolution = resolution;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+
+        // En-tête provisoire (nombre de tracés et index inconnus) : MAGIC à 0 tant que le fichier n'est pas fermé
+        buffer.put(new byte[TraceCorpus.HEADER_SIZE]);
+    }
+
+    /**
+     * Adaptateur List&lt;Point&gt; de {@link #write(String, Trace)}.
+     */
+    public void write(String id, List<Point> points) throws IOException {
+        write(id, Trace.of(points));
+    }
+
+    /**
+     * Ajoute un tracé au corpus.
+     */
+    public void write(String id, Trace trace) throws IOException {
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[(int) count++] = position;
+
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        putVarLong(idBytes.length);
+        for (byte b : idBytes) {
+            ensureCapacity(1);
+            buffer.put(b);
+            position++;
+        }
+
+        putVarLong(trace.size());
+        long previousX = 0, previousY = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            long x = quantize(trace.x(i));
+            long y = quantize(trace.y(i));
+            putZigZag(x - previousX);
+            putZigZag(y - previousY);
+            previousX = x;
+            previousY = y;
+        }
+    }
+
+    /**
+     * Nombre de tracés écrits jusqu'ici.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Écrit l'index puis l'en-tête définitif.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = position;
+            for (int i = 0; i < count; i++) {
+                ensureCapacity(Long.BYTES);
+                buffer.putLong(offsets[i]);
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(TraceCorpus.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(TraceCorpus.MAGIC)
+                    .putInt(TraceCorpus.VERSION)
+                    .putDouble(resolution)
+                    .putLong(count)
+                    .putLong(indexOffset)
+                    .flip();
+            channel.write(header, 0);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private long quantize(double coordinate) {
+        if (!Double.isFinite(coordinate)) {
+            throw new IllegalArgumentException("Coordonnée non finie : " + coordinate);
+        }
+        return Math.round(coordinate * resolution);
+    }
+
+    private void putZigZag(long value) throws IOException {
+        putVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void putVarLong(long value) throws IOException {
+        ensureCapacity(MAX_VARLONG_BYTES);
+        int start = buffer.position();
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        position += buffer.position() - start;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Convertit un fichier texte de tracés en corpus binaire.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : TraceCorpusWriter <entrée.csv|entrée.jsonl> <sortie.trc>");
+            System.exit(2);
+        }
+        Path input = Path.of(args[0]);
+        TraceRecordParser.Format format = TraceRecordParser.formatOf(input.getFileName().toString());
+
+        long lineNumber = 0, errors = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             TraceCorpusWriter writer = new TraceCorpusWriter(Path.of(args[1]))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (TraceRecordParser.isSkipped(line, format)) {
+                    continue;
+                }
+                try {
+                    TraceRecordParser.TraceRecord record = TraceRecordParser.parse(line, lineNumber, format);
+                    writer.write(record.id(), record.trace());
+                } catch (IllegalArgumentException e) {
+                    errors++;
+                    System.err.println("Ligne " + lineNumber + " ignorée : " + e.getMessage());
+                }
+            }
+            System.err.println(writer.count() + " tracés écrits, " + errors + " lignes ignorées");
+        }
+    }
+}
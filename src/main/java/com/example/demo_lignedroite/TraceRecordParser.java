@@ -0,0 +1,183 @@
+package com.example.demo_lignedroite;
+
+import java.util.Arrays;
+
+/**
+ * Lecture d'un tracé par ligne de fichier, en CSV ou en JSON lines.
+ * <ul>
+ *   <li>CSV : {@code id,x0,y0,x1,y1,...} (une éventuelle ligne d'en-tête commence par « id »).</li>
+ *   <li>JSON lines : {@code {"id": "a1", "points": [[x0, y0], [x1, y1], ...]}} ; un tableau
+ *       plat {@code [x0, y0, x1, y1, ...]} est aussi accepté.</li>
+ * </ul>
+ * Le parseur JSON est volontairement minimal (pas de dépendance) : il ne lit que les clés
+ * « id » et « points » et ignore le reste de l'objet.
+ */
+public final class TraceRecordParser {
+
+    // BINARY désigne un corpus TraceCorpus (.trc), qui ne se lit pas ligne par ligne
+    public enum Format { CSV, JSONL, BINARY }
+
+    /**
+     * Un tracé lu dans le fichier, avec son identifiant (le numéro de ligne à défaut).
+     */
+    public record TraceRecord(String id, Trace trace) {}
+
+    private TraceRecordParser() {
+    }
+
+    /**
+     * Déduit le format de l'extension du fichier (.csv, .trc, sinon JSON lines).
+     */
+    public static Format formatOf(String fileName) {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".csv")) {
+            return Format.CSV;
+        }
+        return name.endsWith(".trc") ? Format.BINARY : Format.JSONL;
+    }
+
+    /**
+     * Indique si la ligne ne contient pas de tracé (vide, commentaire « # » ou en-tête CSV).
+     */
+    public static boolean isSkipped(String line, Format format) {
+        String trimmed = line.strip();
+        return trimmed.isEmpty()
+                || trimmed.startsWith("#")
+                || (format == Format.CSV && trimmed.regionMatches(true, 0, "id", 0, 2)
+                        && (trimmed.length() == 2 || trimmed.charAt(2) == ','));
+    }
+
+    /**
+     * @throws IllegalArgumentException si la ligne est mal formée.
+     */
+    public static TraceRecord parse(String line, long lineNumber, Format format) {
+        return switch (format) {
+            case CSV -> parseCsv(line, lineNumber);
+            case JSONL -> parseJson(line, lineNumber);
+            case BINARY -> throw new IllegalArgumentException("Un corpus binaire se lit avec TraceCorpus");
+        };
+    }
+
+    private static TraceRecord parseCsv(String line, long lineNumber) {
+        int comma = line.indexOf(',');
+        String id = (comma < 0) ? line.strip() : line.substring(0, comma).strip();
+        if (id.isEmpty()) {
+            id = Long.toString(lineNumber);
+        }
+
+        double[] values = new double[16];
+        int count = 0;
+        int start = comma + 1;
+        while (comma >= 0 && start <= line.length()) {
+            int end = line.indexOf(',', start);
+            if (end < 0) {
+                end = line.length();
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = parseNumber(line, start, end);
+            start = end + 1;
+        }
+
+        return new TraceRecord(id, toTrace(values, count));
+    }
+
+    private static TraceRecord parseJson(String line, long lineNumber) {
+        String id = jsonId(line);
+        if (id == null) {
+            id = Long.toString(lineNumber);
+        }
+
+        int key = line.indexOf("\"points\"");
+        int open = (key < 0) ? -1 : line.indexOf('[', key);
+        if (open < 0) {
+            throw new IllegalArgumentException("Clé \"points\" absente");
+        }
+
+        // Tous les nombres du tableau (imbriqué ou plat), jusqu'au crochet fermant correspondant
+        double[] values = new double[16];
+        int count = 0;
+        int depth = 0;
+        int i = open;
+        for (; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                if (--depth == 0) {
+                    break;
+                }
+            } else if (c == '-' || c == '.' || Character.isDigit(c)) {
+                int end = i + 1;
+                while (end < line.length() && isNumberChar(line.charAt(end))) {
+                    end++;
+                }
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                values[count++] = parseNumber(line, i, end);
+                i = end - 1;
+            }
+        }
+        if (depth != 0) {
+            throw new IllegalArgumentException("Tableau \"points\" non fermé");
+        }
+
+        return new TraceRecord(id, toTrace(values, count));
+    }
+
+    /**
+     * Valeur de la clé « id » (chaîne ou nombre), ou null si elle est absente.
+     */
+    private static String jsonId(String line) {
+        int key = line.indexOf("\"id\"");
+        if (key < 0) {
+            return null;
+        }
+        int colon = line.indexOf(':', key + 4);
+        if (colon < 0) {
+            return null;
+        }
+
+        int start = colon + 1;
+        while (start < line.length() && Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        if (start < line.length() && line.charAt(start) == '"') {
+            int end = line.indexOf('"', start + 1);
+            return (end < 0) ? null : line.substring(start + 1, end);
+        }
+
+        int end = start;
+        while (end < line.length() && isNumberChar(line.charAt(end))) {
+            end++;
+        }
+        return (end > start) ? line.substring(start, end) : null;
+    }
+
+    private static boolean isNumberChar(char c) {
+        return Character.isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private static double parseNumber(String line, int start, int end) {
+        String text = line.substring(start, end).strip();
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Coordonnée invalide : \"" + text + "\"");
+        }
+    }
+
+    private static Trace toTrace(double[] values, int count) {
+        if (count % 2 != 0) {
+            throw new IllegalArgumentException("Nombre impair de coordonnées : " + count);
+        }
+
+        Trace trace = new Trace(count / 2);
+        for (int i = 0; i < count / 2; i++) {
+            trace.set(i, values[2 * i], values[2 * i + 1]);
+        }
+        return trace;
+    }
+}
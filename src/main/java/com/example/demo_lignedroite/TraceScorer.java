@@ -0,0 +1,186 @@
+package com.example.demo_lignedroite;
+
+import java.util.List;
+
+/**
+ * Calcul du score d'un tracé par rapport à la ligne droite modèle, sans dépendance à JavaFX.
+ * Partagé par l'interface (Controller) et le traitement par lots (BatchScorer).
+ */
+public class TraceScorer {
+
+    // Rééchantillonnage : écart maximal (en pixels) toléré entre le tracé et sa version rééchantillonnée
+    static final double RESAMPLING_TOLERANCE = ArcLengthResampler.DEFAULT_TOLERANCE;
+
+    // Tolérance de Douglas-Peucker pour la pénalité de bruit (lissage)
+    private static final double SMOOTHING_EPSILON = 1;
+
+    /**
+     * Options de score, équivalentes aux cases à cocher de l'interface.
+     * @param anglePenalty Pénalise les tracés trop inclinés par rapport au modèle.
+     * @param smoothing Calcule la pénalité de bruit (Douglas-Peucker).
+     * @param resampling Rééchantillonne le tracé utilisateur en points régulièrement espacés le long
+     *                   de la courbe (voir ArcLengthResampler), quelle que soit la fréquence de la souris.
+     */
+    public record Options(boolean anglePenalty, boolean smoothing, boolean resampling) {}
+
+    /**
+     * @param noisePenalty Pénalité de bruit (NaN si le lissage n'est pas demandé).
+     */
+    public record Score(
+            double Angle,
+            double bestFrechetDistance,
+            double scaleFactor,
+            double score,
+            double noisePenalty,
+            List<Point> rotatedPoints
+    ) {}
+
+    private final Point modelStart;
+    private final Point modelEnd;
+    private final Options options;
+    private final ScoringMetrics metrics;
+
+    /**
+     * @param modelStart Début de la ligne droite modèle.
+     * @param modelEnd Fin de la ligne droite modèle.
+     */
+    public TraceScorer(Point modelStart, Point modelEnd, Options options) {
+        this(modelStart, modelEnd, options, ScoringMetrics.global());
+    }
+
+    /**
+     * @param metrics Mesures de toutes les phases du score, y compris celles de la recherche
+     *                de rotation et de Douglas-Peucker.
+     */
+    public TraceScorer(Point modelStart, Point modelEnd, Options options, ScoringMetrics metrics) {
+        this.modelStart = modelStart;
+        this.modelEnd = modelEnd;
+        this.options = options;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adaptateur List&lt;Point&gt; de {@link #score(Trace)}.
+     */
+    public Score score(List<Point> userPoints) {
+        return score(Trace.of(userPoints));
+    }
+
+    /**
+     * Score (0 à 100) du tracé utilisateur, qui n'est pas modifié.
+     */
+    public Score score(Trace userPoints) {
+        long scoreStart = metrics.start();
+        ScoringEvents.Score event = new ScoringEvents.Score();
+        event.begin();
+
+        // Copie du tracé, rééchantillonné le long de la courbe si demandé
+        long phaseStart = metrics.start();
+        Trace userTrace = (options.resampling() && userPoints.size() >= 2)
+                ? ArcLengthResampler.resample(userPoints, RESAMPLING_TOLERANCE)
+                : userPoints.copy();
+        metrics.stop(ScoringMetrics.Phase.SUBSAMPLE, phaseStart);
+
+        // Modèle préparé (ligne idéale, centre, bornes), repris du cache pour une même taille de tracé.
+        // Ses points sont régulièrement espacés : c'est aussi le modèle rééchantillonné à cette taille.
+        phaseStart = metrics.start();
+        ModelTemplate idealTemplate = ModelTemplateCache.shared().line(modelStart, modelEnd,
+                Math.max(1, userTrace.size()));
+        metrics.stop(ScoringMetrics.Phase.MODEL, phaseStart);
+
+        // 1. On lance l'optimisation (le tracé utilisateur n'est pas normalisé)
+        PathRotationOptimizer PRO = new PathRotationOptimizer();
+        PRO.setMetrics(metrics);
+        PathRotationOptimizer.RotationResult AfterRotation = PRO.findOptimalRotation(userTrace, idealTemplate);
+
+        // 2. Distance de Fréchet
+        double frechetDistance = AfterRotation.bestFrechetDistance();
+        ScoringMetrics.console(() -> frechetDistance + "\n" + AfterRotation.bestAngle());
+
+        // 3. Normaliser la distance pour obtenir un score (0 à 100)
+
+        // Calculer la longueur de la diagonale idéale pour définir d_max
+        double diagonalLength = idealTemplate.length();
+
+        ScoringMetrics.console(() -> "dmax="+diagonalLength/4);
+        double score = scoreFromDistance(frechetDistance, diagonalLength);
+
+        if (options.anglePenalty()){
+            score = applyAnglePenalty(score, AfterRotation.NormalizedAngle());
+        }
+
+        double noisePenalty = options.smoothing() ? noisePenalty(AfterRotation.rotatedPoints(), metrics) : Double.NaN;
+
+        metrics.add(ScoringMetrics.Counter.SCORES, 1);
+        metrics.stop(ScoringMetrics.Phase.SCORE, scoreStart);
+
+        if (event.shouldCommit()) {
+            PathRotationOptimizer.SearchStatistics statistics = AfterRotation.statistics();
+            event.traceLength = userPoints.size();
+            event.sampledLength = userTrace.size();
+            event.modelLength = idealTemplate.size();
+            event.candidates = statistics.candidates();
+            event.pruned = statistics.prunedByEndpoints() + statistics.prunedByBoundingBox();
+            event.frechetDistance = frechetDistance;
+            event.score = score;
+            event.commit();
+        }
+
+        return new Score(AfterRotation.NormalizedAngle(), frechetDistance, AfterRotation.scaleFactor(), score,
+                noisePenalty, AfterRotation.rotatedPoints());
+    }
+
+    /**
+     * Score (0 à 100) d'une distance de Fréchet, pour un modèle de longueur {@code modelLength}.
+     */
+    public static double scoreFromDistance(double frechetDistance, double modelLength) {
+        // On fixe une distance maximale d_max comme étant 25% de la longueur idéale
+        double d_max = modelLength/4;
+
+        // Normalisation et calcul du score
+        double normalizedDistance = Math.min(frechetDistance, d_max);
+        double score = 100.0 * (1.0 - (normalizedDistance / d_max));
+
+        // S'assurer que le score est entre 0 et 100
+        return Math.max(0, Math.min(100, score));
+    }
+
+    /**
+     * Pénalité d'angle (option anglePenalty) : un tracé trop incliné perd jusqu'à 10 points.
+     * @param normalizedAngle Angle de rotation absolu, entre 0 et 180 degrés.
+     */
+    public static double applyAnglePenalty(double score, double normalizedAngle) {
+        if (normalizedAngle>10 & normalizedAngle<170){
+            score=score-(10* normalizedAngle/180);
+        }
+        return score;
+    }
+
+    /**
+     * Pénalité de bruit (option smoothing) : somme des écarts du tracé redressé à sa version
+     * simplifiée par Douglas-Peucker.
+     */
+    private static double noisePenalty(List<Point> rotatedPoints, ScoringMetrics metrics) {
+        double noisePenalty = DouglasPeuckerAnalyzer.analyze(Trace.of(rotatedPoints), SMOOTHING_EPSILON, metrics)
+                .totalPenalty();
+        ScoringMetrics.console(() -> "Pénalité de bruit totale (somme des écarts) : " + noisePenalty);
+        return noisePenalty;
+    }
+
+    /**
+     * Génère la ligne droite idéale (points uniformément espacés) sous forme de tracé primitif.
+     */
+    public static Trace generateLineTrace(double x1, double y1, double x2, double y2, int count) {
+        Trace points = new Trace(count);
+
+        for (int i = 0; i < count; i++) {
+            double ratio = (double) i / (count - 1);
+            // Interpolation linéaire
+            double x = x1 + (x2 - x1) * ratio;
+            double y = y1 + (y2 - y1) * ratio;
+
+            points.set(i, x, y);
+        }
+        return points;
+    }
+}
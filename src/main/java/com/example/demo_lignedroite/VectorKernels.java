@@ -0,0 +1,172 @@
+package com.example.demo_lignedroite;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Noyaux de calcul par lots sur l'API Vector (module incubateur jdk.incubator.vector) :
+ * rotation d'un tracé, distances d'un point à une ligne de la matrice de Fréchet, et recherche
+ * du point le plus éloigné d'une droite pour Douglas-Peucker.
+ * <p>
+ * Désactivés par défaut. Ils s'activent avec {@code -Dlignedroite.simd=true} et
+ * {@code --add-modules jdk.incubator.vector} (profil Maven {@code simd}) ; si le module est
+ * absent ou si la machine n'a pas de registres vectoriels d'au moins deux doubles, les boucles
+ * scalaires habituelles restent utilisées. Les opérations sont faites dans le même ordre que
+ * ces boucles, sans FMA : les résultats sont identiques au bit près.
+ * <p>
+ * Les tableaux sont les tableaux physiques des tracés : les appelants vérifient
+ * {@link #ENABLED}, la taille minimale MIN_BATCH et que le tracé n'est pas une vue inversée.
+ */
+final class VectorKernels {
+
+    private static final String PROPERTY = "lignedroite.simd";
+    private static final String MODULE = "jdk.incubator.vector";
+
+    // En dessous, la préparation des vecteurs coûte plus que la boucle scalaire
+    static final int MIN_BATCH = 16;
+
+    static final boolean ENABLED = detect();
+
+    private VectorKernels() {
+    }
+
+    private static boolean detect() {
+        if (!Boolean.getBoolean(PROPERTY)) {
+            return false;
+        }
+        if (ModuleLayer.boot().findModule(MODULE).isEmpty()) {
+            System.err.println("-D" + PROPERTY + "=true ignoré : lancer avec --add-modules " + MODULE);
+            return false;
+        }
+        try {
+            // Chargement de la classe interne : c'est elle qui référence l'API Vector
+            return Simd.SPECIES.length() >= 2;
+        } catch (LinkageError e) {
+            System.err.println("-D" + PROPERTY + "=true ignoré : " + e);
+            return false;
+        }
+    }
+
+    /**
+     * (outX[i], outY[i]) = rotation de (xs[i], ys[i]) pour i &lt; n ; les tableaux de sortie
+     * peuvent être ceux d'entrée (rotation en place).
+     */
+    static void rotate(double[] xs, double[] ys, int n, double cos, double sin, double[] outX, double[] outY) {
+        Simd.rotate(xs, ys, n, cos, sin, outX, outY);
+    }
+
+    /**
+     * out[j] = distance de (px, py) au point j, pour from &lt;= j &lt; to.
+     */
+    static void distances(double px, double py, double[] xs, double[] ys, int from, int to, double[] out) {
+        Simd.distances(px, py, xs, ys, from, to, out);
+    }
+
+    /**
+     * Indice du premier point de [from, to) le plus éloigné de la droite (A, B), même formule
+     * que DouglasPeuckerAnalyzer.distancePointToLine ; -1 si aucun n'en est strictement éloigné.
+     */
+    static int farthestFromLine(double[] xs, double[] ys, int from, int to,
+                                double ax, double ay, double bx, double by) {
+        return Simd.farthestFromLine(xs, ys, from, to, ax, ay, bx, by);
+    }
+
+    /**
+     * Seule classe qui référence l'API Vector : elle n'est chargée que si les noyaux sont demandés.
+     */
+    private static final class Simd {
+        static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+        // 0, 1, 2... : indices des voies, pour suivre l'indice du maximum de chaque voie
+        private static final DoubleVector LANE_INDICES = DoubleVector.fromArray(SPECIES, laneIndices(), 0);
+
+        private static double[] laneIndices() {
+            double[] indices = new double[SPECIES.length()];
+            for (int lane = 0; lane < indices.length; lane++) {
+                indices[lane] = lane;
+            }
+            return indices;
+        }
+
+        static void rotate(double[] xs, double[] ys, int n, double cos, double sin, double[] outX, double[] outY) {
+            int i = 0;
+            for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+                DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+                DoubleVector y = DoubleVector.fromArray(SPECIES, ys, i);
+                x.mul(cos).sub(y.mul(sin)).intoArray(outX, i);
+                x.mul(sin).add(y.mul(cos)).intoArray(outY, i);
+            }
+            for (; i < n; i++) {
+                double x = xs[i];
+                double y = ys[i];
+                outX[i] = x * cos - y * sin;
+                outY[i] = x * sin + y * cos;
+            }
+        }
+
+        static void distances(double px, double py, double[] xs, double[] ys, int from, int to, double[] out) {
+            int j = from;
+            for (int bound = from + SPECIES.loopBound(to - from); j < bound; j += SPECIES.length()) {
+                DoubleVector dx = DoubleVector.broadcast(SPECIES, px).sub(DoubleVector.fromArray(SPECIES, xs, j));
+                DoubleVector dy = DoubleVector.broadcast(SPECIES, py).sub(DoubleVector.fromArray(SPECIES, ys, j));
+                dx.mul(dx).add(dy.mul(dy)).lanewise(VectorOperators.SQRT).intoArray(out, j);
+            }
+            for (; j < to; j++) {
+                double dx = px - xs[j];
+                double dy = py - ys[j];
+                out[j] = Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+
+        static int farthestFromLine(double[] xs, double[] ys, int from, int to,
+                                    double ax, double ay, double bx, double by) {
+            double baseX = ax - bx;
+            double baseY = ay - by;
+            double base = Math.sqrt(baseX * baseX + baseY * baseY);
+            double constant1 = ax * by;
+            double constant2 = ay * bx;
+
+            // Maximum de chaque voie et indice de sa première occurrence (comparaison stricte)
+            DoubleVector bestDistance = DoubleVector.zero(SPECIES);
+            DoubleVector bestIndex = DoubleVector.broadcast(SPECIES, -1);
+            int i = from;
+            for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+                DoubleVector px = DoubleVector.fromArray(SPECIES, xs, i);
+                DoubleVector py = DoubleVector.fromArray(SPECIES, ys, i);
+                DoubleVector distance;
+                if (base == 0) {
+                    DoubleVector dx = px.sub(ax);
+                    DoubleVector dy = py.sub(ay);
+                    distance = dx.mul(dx).add(dy.mul(dy)).lanewise(VectorOperators.SQRT);
+                } else {
+                    // |(ax·by + bx·py + px·ay) - (ay·bx + by·px + py·ax)| / base
+                    DoubleVector positive = py.mul(bx).add(constant1).add(px.mul(ay));
+                    DoubleVector negative = px.mul(by).add(constant2).add(py.mul(ax));
+                    distance = positive.sub(negative).abs().div(base);
+                }
+                VectorMask<Double> better = distance.compare(VectorOperators.GT, bestDistance);
+                bestDistance = bestDistance.blend(distance, better);
+                bestIndex = bestIndex.blend(LANE_INDICES.add(i), better);
+            }
+
+            double maxDistance = bestDistance.reduceLanes(VectorOperators.MAX);
+            int maxIndex = -1;
+            if (maxDistance > 0) {
+                // Plusieurs voies peuvent atteindre le maximum : la première occurrence est le plus petit indice
+                VectorMask<Double> atMax = bestDistance.compare(VectorOperators.EQ, maxDistance);
+                maxIndex = (int) bestIndex.reduceLanes(VectorOperators.MIN, atMax);
+            }
+
+            for (; i < to; i++) {
+                double distance = DouglasPeuckerAnalyzer.distancePointToLine(xs[i], ys[i], ax, ay, bx, by);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    maxIndex = i;
+                }
+            }
+            return maxIndex;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo_lignedroite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Distance de Fréchet discrète d'une seule paire de très longs tracés, répartie sur plusieurs cœurs.
+ * <p>
+ * La matrice est découpée en tuiles de TILE × TILE cases. Une tuile ne dépend que de ses voisines
+ * du haut, de gauche et de la diagonale : toutes les tuiles d'une même anti-diagonale de tuiles
+ * sont indépendantes et calculées en parallèle, anti-diagonale après anti-diagonale. Seuls les
+ * bords des tuiles sont conservés (dernière ligne par colonne, dernière colonne par ligne, coin
+ * de chaque tuile) : mémoire O(n + m + nombre de tuiles).
+ * <p>
+ * Les minimums et maximums sont exacts et les distances calculées comme dans la version
+ * séquentielle : le résultat est identique au bit près, quel que soit l'ordre des tuiles.
+ * Sous MIN_CELLS cases, la version séquentielle est utilisée.
+ */
+final class WavefrontFrechet {
+
+    // Côté des tuiles : les coordonnées et la ligne de travail d'une tuile tiennent en cache L1
+    static final int TILE = 256;
+
+    // En dessous (n·m), la synchronisation coûte plus que le calcul : version séquentielle
+    static final long MIN_CELLS = 1L << 22;
+
+    // Distances d'une ligne de tuile, calculées par lots (VectorKernels) ; une par thread
+    private static final ThreadLocal<double[]> DISTANCE_ROW = ThreadLocal.withInitial(() -> new double[0]);
+
+    private WavefrontFrechet() {
+    }
+
+    /**
+     * @return La distance si elle est strictement inférieure à la borne, sinon EXCEEDS_BOUND
+     *         (la matrice est calculée entièrement : pas d'abandon anticipé).
+     */
+    static double compute(Trace P, Trace Q, double upperBound, ForkJoinPool pool) {
+        // Mêmes rôles que la version séquentielle : la courbe la plus longue en lignes
+        Trace rows = (P.size() >= Q.size()) ? P : Q;
+        Trace cols = (rows == P) ? Q : P;
+        Matrix matrix = new Matrix(rows, cols);
+        pool.invoke(new Sweep(matrix));
+        double result = matrix.bottom[cols.size() - 1];
+        return (result < upperBound) ? result : FrechetDistanceCalculator.EXCEEDS_BOUND;
+    }
+
+    /**
+     * Bords partagés entre les tuiles. À une anti-diagonale donnée, la tuile (bi, bj) est la seule
+     * à lire et écrire bottom sur ses colonnes et right sur ses lignes : aucune écriture concurrente.
+     */
+    private static final class Matrix {
+        final Trace rows, cols;
+        final int tileRows, tileCols;
+        // Dernière ligne calculée de chaque colonne, dernière colonne calculée de chaque ligne
+        final double[] bottom, right;
+        // Case en bas à droite de chaque tuile (coin de la tuile suivante en diagonale)
+        final double[] corners;
+        final boolean batched;
+
+        Matrix(Trace rows, Trace cols) {
+            this.rows = rows;
+            this.cols = cols;
+            this.tileRows = (rows.size() + TILE - 1) / TILE;
+            this.tileCols = (cols.size() + TILE - 1) / TILE;
+            this.bottom = new double[cols.size()];
+            this.right = new double[rows.size()];
+            this.corners = new double[tileRows * tileCols];
+            this.batched = VectorKernels.ENABLED && !cols.isReversedView();
+        }
+
+        /**
+         * Calcule la tuile (bi, bj) ; les voisins hors de la matrice valent +∞.
+         */
+        void computeTile(int bi, int bj) {
+            int rowStart = bi * TILE, rowEnd = Math.min(rows.size(), rowStart + TILE);
+            int colStart = bj * TILE, colEnd = Math.min(cols.size(), colStart + TILE);
+            int width = colEnd - colStart;
+
+            // Ligne du dessus (dernière ligne de la tuile (bi - 1, bj)), puis ligne courante, en place
+            double[] line = new double[width];
+            if (bi == 0) {
+                Arrays.fill(line, Double.POSITIVE_INFINITY);
+            } else {
+                System.arraycopy(bottom, colStart, line, 0, width);
+            }
+            double[] distances = batched ? distanceRow(cols.size()) : null;
+
+            // Case (i - 1, colStart - 1) : coin de la tuile (bi - 1, bj - 1), puis bord gauche de la ligne précédente
+            double leftDiagonal = (bi > 0 && bj > 0) ? corners[(bi - 1) * tileCols + (bj - 1)] : Double.POSITIVE_INFINITY;
+
+            for (int i = rowStart; i < rowEnd; i++) {
+                double ax = rows.x(i);
+                double ay = rows.y(i);
+                if (distances != null) {
+                    VectorKernels.distances(ax, ay, cols.xArray(), cols.yArray(), colStart, colEnd, distances);
+                }
+
+                double left = (bj > 0) ? right[i] : Double.POSITIVE_INFINITY;
+                double diagonal = leftDiagonal;
+                leftDiagonal = left;
+
+                for (int k = 0; k < width; k++) {
+                    int j = colStart + k;
+                    double dist;
+                    if (distances != null) {
+                        dist = distances[j];
+                    } else {
+                        double dx = ax - cols.x(j);
+                        double dy = ay - cols.y(j);
+                        dist = Math.sqrt(dx * dx + dy * dy);
+                    }
+
+                    double up = line[k];
+                    double value = (i == 0 && j == 0)
+                            ? dist
+                            : Math.max(Math.min(up, Math.min(left, diagonal)), dist);
+                    line[k] = value;
+                    diagonal = up;
+                    left = value;
+                }
+                right[i] = left;
+            }
+
+            System.arraycopy(line, 0, bottom, colStart, width);
+            corners[bi * tileCols + bj] = line[width - 1];
+        }
+    }
+
+    private static double[] distanceRow(int size) {
+        double[] row = DISTANCE_ROW.get();
+        if (row.length < size) {
+            row = new double[size];
+            DISTANCE_ROW.set(row);
+        }
+        return row;
+    }
+
+    /**
+     * Parcourt les anti-diagonales de tuiles ; les tuiles d'une même anti-diagonale sont lancées ensemble.
+     */
+    @SuppressWarnings("serial") // Tâche fork-join, jamais sérialisée
+    private static final class Sweep extends RecursiveAction {
+        private final Matrix matrix;
+
+        Sweep(Matrix matrix) {
+            this.matrix = matrix;
+        }
+
+        @Override
+        protected void compute() {
+            List<TileTask> tiles = new ArrayList<>();
+            for (int d = 0; d < matrix.tileRows + matrix.tileCols - 1; d++) {
+                tiles.clear();
+                for (int bi = Math.max(0, d - matrix.tileCols + 1); bi <= Math.min(d, matrix.tileRows - 1); bi++) {
+                    tiles.add(new TileTask(matrix, bi, d - bi));
+                }
+                if (tiles.size() == 1) {
+                    tiles.get(0).compute();
+                } else {
+                    invokeAll(tiles);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class TileTask extends RecursiveAction {
+        private final Matrix matrix;
+        private final int bi, bj;
+
+        TileTask(Matrix matrix, int bi, int bj) {
+            this.matrix = matrix;
+            this.bi = bi;
+            this.bj = bj;
+        }
+
+        @Override
+        protected void compute() {
+            matrix.computeTile(bi, bj);
+        }
+    }
+}
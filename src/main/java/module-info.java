@@ -1,6 +1,9 @@
 module com.example.demo_lignedroite {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
+    // Optionnel à l'exécution (--add-modules jdk.incubator.vector), voir VectorKernels
+    requires static jdk.incubator.vector;
 
 
     opens com.example.demo_lignedroite to javafx.fxml;
@@ -0,0 +1,95 @@
+package com.example.demo_lignedroite;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Les variantes de FrechetDistanceCalculator face au calcul séquentiel sur la matrice complète
+ * (calculateDiscreteFrechet) : résultats comparés au bit près, abandon compris.
+ */
+class FrechetDistanceCalculatorTest {
+
+    private static final Point MODEL_START = new Point(200, 50);
+    private static final Point MODEL_END = new Point(50, 50);
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tracés de 400 points (au-delà de BANDED_MIN_POINTS) face à la ligne modèle de TraceScorer.
+     */
+    static Stream<Arguments> longTraces() {
+        PathGenerator generator = new PathGenerator(1);
+        return Stream.of(
+                Arguments.of("ligne inversée bruitée", Trace.of(
+                        generator.generateNoisyLine(new Point(110, 50), new Point(10, 50), 400, 2))),
+                Arguments.of("arc", Trace.of(
+                        generator.generateArc(new Point(110, 50), new Point(10, 80), 400, 15))),
+                Arguments.of("sinusoïde", Trace.of(
+                        generator.generateSinusoid(new Point(110, 50), new Point(10, 50), 400, 130, 1))),
+                Arguments.of("ligne à pics", Trace.of(
+                        generator.generateSpikyLine(new Point(110, 50), new Point(10, 50), 400, 4, 2))),
+                Arguments.of("ligne avec retour en arrière", Trace.of(
+                        generator.generateOverlappingLine(new Point(110, 50), new Point(10, 50), 400, 20))));
+    }
+
+    // --- Fréchet en bande ---
+
+    /**
+     * Couloirs étroits (élargis jusqu'à la matrice complète) et larges, bornes d'abandon au-dessus,
+     * à et sous la distance exacte.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("longTraces")
+    void bandedFrechetMatchesFullMatrix(String scenario, Trace user) {
+        Trace model = ModelTemplate.line(MODEL_START, MODEL_END, user.size()).points();
+        double exact = FrechetDistanceCalculator.calculateDiscreteFrechet(user, model, Double.POSITIVE_INFINITY);
+
+        for (int bandRadius : new int[]{1, 2, 16, 64}) {
+            for (double upperBound : new double[]{Double.POSITIVE_INFINITY, exact * 1.01, exact, exact * 0.5}) {
+                assertEquals(FrechetDistanceCalculator.calculateDiscreteFrechet(user, model, upperBound),
+                        FrechetDistanceCalculator.calculateBandedFrechet(user, model, upperBound, bandRadius),
+                        scenario + " (demi-largeur " + bandRadius + ", borne " + upperBound + ")");
+            }
+        }
+    }
+
+    // --- Front d'onde parallèle ---
+
+    /**
+     * Au seuil d'activation (MIN_CELLS cases) l'appel public passe au front d'onde ; juste en
+     * dessous, il reste séquentiel : même résultat des deux côtés.
+     */
+    @Test
+    void parallelFrechetMatchesSerialAroundThreshold() {
+        int side = (int) Math.sqrt((double) WavefrontFrechet.MIN_CELLS);
+        Random random = new Random(7);
+
+        for (int[] size : new int[][]{{side, side}, {side - 1, side}, {side + 1, side - 1}}) {
+            Trace p = WavefrontFrechetTest.randomWalk(random, size[0]);
+            Trace q = WavefrontFrechetTest.randomWalk(random, size[1]);
+            assertEquals(FrechetDistanceCalculator.calculateDiscreteFrechet(p, q, Double.POSITIVE_INFINITY),
+                    FrechetDistanceCalculator.calculateDiscreteFrechetParallel(p, q, Double.POSITIVE_INFINITY, pool),
+                    size[0] + " × " + size[1]);
+        }
+    }
+}
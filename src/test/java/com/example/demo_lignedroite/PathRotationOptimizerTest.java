@@ -0,0 +1,182 @@
+package com.example.demo_lignedroite;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Les modes de recherche et les optimisations de PathRotationOptimizer face au balayage
+ * exhaustif séquentiel (mode de référence), sur les scénarios de PathGenerator de l'interface
+ * (Controller.Test) et la ligne modèle de TraceScorer.
+ * <p>
+ * Les optimisations ne doivent rien changer : résultats comparés au bit près.
+ */
+class PathRotationOptimizerTest {
+
+    private static final Point MODEL_START = new Point(200, 50);
+    private static final Point MODEL_END = new Point(50, 50);
+
+    private static final long[] SEEDS = {1, 2, 3, 4, 5};
+
+    // Pas du balayage exhaustif (PathRotationOptimizer.ROTATION_STEP)
+    private static final double ROTATION_STEP = 0.25;
+
+    // Déplacement du point le plus éloigné du centre (la demi-longueur du modèle) pour un pas
+    // du balayage exhaustif : écart admis entre la grille exhaustive et les angles hors grille
+    // de COARSE_TO_FINE (la distance de Fréchet varie au plus du déplacement des points)
+    private static final double GRID_DISTANCE_TOLERANCE =
+            Math.hypot(MODEL_END.x() - MODEL_START.x(), MODEL_END.y() - MODEL_START.y()) / 2
+                    * Math.toRadians(ROTATION_STEP);
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        ScoringMetrics.setConsoleOutput(false);
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Les six scénarios de l'interface (100 points), pour chaque graine.
+     */
+    static Stream<Arguments> scenarios() {
+        return scenarios(100, SEEDS);
+    }
+
+    /**
+     * Les mêmes scénarios en 400 points (une graine) : au-delà de BANDED_MIN_POINTS, Fréchet passe en bande.
+     */
+    static Stream<Arguments> longScenarios() {
+        return scenarios(400, SEEDS[0]);
+    }
+
+    private static Stream<Arguments> scenarios(int steps, long... seeds) {
+        List<Arguments> arguments = new ArrayList<>();
+        for (long seed : seeds) {
+            PathGenerator generator = new PathGenerator(seed);
+            arguments.add(Arguments.of("ligne tournée de 90°, graine " + seed, Trace.of(
+                    generator.generateRotatedLine(new Point(5, 50), new Point(55, 50), steps, 90.0))));
+            arguments.add(Arguments.of("ligne inversée bruitée, graine " + seed, Trace.of(
+                    generator.generateNoisyLine(new Point(110, 50), new Point(10, 50), steps, 2))));
+            arguments.add(Arguments.of("arc, graine " + seed, Trace.of(
+                    generator.generateArc(new Point(110, 50), new Point(10, 80), steps, 15))));
+            arguments.add(Arguments.of("sinusoïde, graine " + seed, Trace.of(
+                    generator.generateSinusoid(new Point(110, 50), new Point(10, 50), steps, 130, 1))));
+            arguments.add(Arguments.of("ligne à pics, graine " + seed, Trace.of(
+                    generator.generateSpikyLine(new Point(110, 50), new Point(10, 50), steps, 4, 2))));
+            arguments.add(Arguments.of("ligne avec retour en arrière, graine " + seed, Trace.of(
+                    generator.generateOverlappingLine(new Point(110, 50), new Point(10, 50), steps, 20))));
+        }
+        return arguments.stream();
+    }
+
+    private static PathRotationOptimizer.RotationResult optimize(Trace user, PathRotationOptimizer optimizer) {
+        return optimizer.findOptimalRotation(user, ModelTemplate.line(MODEL_START, MODEL_END, user.size()));
+    }
+
+    private static PathRotationOptimizer.RotationResult reference(Trace user) {
+        return optimize(user, new PathRotationOptimizer(PathRotationOptimizer.SearchMode.EXHAUSTIVE));
+    }
+
+    private static void assertSameResult(PathRotationOptimizer.RotationResult expected,
+                                         PathRotationOptimizer.RotationResult actual, String scenario) {
+        assertEquals(expected.reversed(), actual.reversed(), scenario + " : sens");
+        assertEquals(expected.bestAngle(), actual.bestAngle(), scenario + " : angle");
+        assertEquals(expected.bestFrechetDistance(), actual.bestFrechetDistance(), scenario + " : distance");
+    }
+
+    /**
+     * Angle du résultat ramené au sens de parcours original, dans [0, 360[. Le modèle est une
+     * ligne droite centrée, qu'une rotation de 180° parcourt exactement en sens inverse : le tracé
+     * inversé tourné de θ donne le même couplage que le tracé original tourné de θ + 180°.
+     * Sur une ligne bruitée, les deux sont presque à égalité et l'un ou l'autre peut l'emporter.
+     */
+    private static double originalOrientationAngle(PathRotationOptimizer.RotationResult result) {
+        double angle = result.reversed() ? result.bestAngle() + 180 : result.bestAngle();
+        return ((angle % 360) + 360) % 360;
+    }
+
+    private static double angleGap(double a, double b) {
+        double gap = Math.abs(a - b);
+        return Math.min(gap, 360 - gap);
+    }
+
+    // --- COARSE_TO_FINE ---
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("scenarios")
+    void coarseToFineFindsExhaustiveAngle(String scenario, Trace user) {
+        PathRotationOptimizer.RotationResult expected = reference(user);
+        PathRotationOptimizer.RotationResult actual =
+                optimize(user, new PathRotationOptimizer(PathRotationOptimizer.SearchMode.COARSE_TO_FINE));
+
+        // Les angles affinés ne sont pas sur la grille exhaustive : égalité à un pas de grille près
+        double expectedAngle = originalOrientationAngle(expected);
+        double actualAngle = originalOrientationAngle(actual);
+        assertEquals(0, angleGap(expectedAngle, actualAngle), ROTATION_STEP,
+                scenario + " : angle " + actualAngle + " au lieu de " + expectedAngle);
+        assertEquals(expected.bestFrechetDistance(), actual.bestFrechetDistance(), GRID_DISTANCE_TOLERANCE,
+                scenario + " : distance");
+        assertTrue(actual.statistics().candidates() < expected.statistics().candidates(),
+                scenario + " : " + actual.statistics().candidates() + " candidats");
+    }
+
+    // --- Parallélisme ---
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("scenarios")
+    void parallelMatchesSequential(String scenario, Trace user) {
+        for (PathRotationOptimizer.SearchMode mode : PathRotationOptimizer.SearchMode.values()) {
+            PathRotationOptimizer sequential = new PathRotationOptimizer(mode);
+            PathRotationOptimizer parallel = new PathRotationOptimizer(mode);
+            parallel.setExecutor(pool);
+
+            assertSameResult(optimize(user, sequential), optimize(user, parallel), scenario + " (" + mode + ")");
+        }
+    }
+
+    // --- Élagage par bornes inférieures ---
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("scenarios")
+    void pruningDoesNotChangeResult(String scenario, Trace user) {
+        for (PathRotationOptimizer.SearchMode mode : PathRotationOptimizer.SearchMode.values()) {
+            PathRotationOptimizer unpruned = new PathRotationOptimizer(mode);
+            unpruned.setLowerBoundPruning(false);
+
+            assertSameResult(optimize(user, unpruned), optimize(user, new PathRotationOptimizer(mode)),
+                    scenario + " (" + mode + ")");
+        }
+    }
+
+    // --- Fréchet en bande ---
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("longScenarios")
+    void bandedMatchesFullMatrix(String scenario, Trace user) {
+        PathRotationOptimizer full = new PathRotationOptimizer();
+        full.setBandRadius(0);
+        PathRotationOptimizer.RotationResult expected = optimize(user, full);
+
+        for (int bandRadius : new int[]{2, FrechetDistanceCalculator.DEFAULT_BAND_RADIUS}) {
+            PathRotationOptimizer banded = new PathRotationOptimizer();
+            banded.setBandRadius(bandRadius);
+            assertSameResult(expected, optimize(user, banded), scenario + " (demi-largeur " + bandRadius + ")");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo_lignedroite;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ShapeRecognizer face à l'évaluation complète de la bibliothèque standard (élagage désactivé) :
+ * mêmes k meilleurs modèles, mêmes scores, en lançant la recherche de rotation sur une petite
+ * partie des modèles seulement.
+ * <p>
+ * Les deux reconnaisseurs partagent une recherche COARSE_TO_FINE, bien plus rapide que le
+ * balayage exhaustif : l'égalité ne dépend pas du mode, tant que la recherche est déterministe.
+ */
+class ShapeRecognizerTest {
+
+    private static final int K = 3;
+
+    private static ShapeRecognizer recognizer;
+    private static ShapeRecognizer reference;
+
+    @BeforeAll
+    static void setUp() {
+        ScoringMetrics.setConsoleOutput(false);
+        PathRotationOptimizer optimizer = new PathRotationOptimizer(PathRotationOptimizer.SearchMode.COARSE_TO_FINE);
+        recognizer = ShapeRecognizer.standardLibrary(optimizer);
+        reference = ShapeRecognizer.standardLibrary(optimizer);
+        reference.setPruning(false);
+    }
+
+    /**
+     * Les scénarios de l'interface (Controller.Test) et deux formes de la bibliothèque, tournées
+     * et à une autre échelle.
+     */
+    private static Map<String, Trace> scenarios() {
+        PathGenerator generator = new PathGenerator(1);
+        Map<String, Trace> scenarios = new LinkedHashMap<>();
+        scenarios.put("ligne tournée de 90°", Trace.of(
+                generator.generateRotatedLine(new Point(5, 50), new Point(55, 50), 100, 90.0)));
+        scenarios.put("ligne inversée bruitée", Trace.of(
+                generator.generateNoisyLine(new Point(110, 50), new Point(10, 50), 100, 2)));
+        scenarios.put("arc", Trace.of(
+                generator.generateArc(new Point(110, 50), new Point(10, 80), 100, 15)));
+        scenarios.put("sinusoïde", Trace.of(
+                generator.generateSinusoid(new Point(110, 50), new Point(10, 50), 100, 130, 1)));
+        scenarios.put("ligne à pics", Trace.of(
+                generator.generateSpikyLine(new Point(110, 50), new Point(10, 50), 100, 4, 2)));
+        scenarios.put("ligne avec retour en arrière", Trace.of(
+                generator.generateOverlappingLine(new Point(110, 50), new Point(10, 50), 100, 20)));
+        scenarios.put("arc incliné", Trace.of(
+                generator.generateArc(new Point(0, 0), new Point(150, -40), 150, -40)));
+        scenarios.put("sinusoïde inclinée", Trace.of(
+                generator.generateSinusoid(new Point(0, 0), new Point(200, 60), 150, 2, 20)));
+        return scenarios;
+    }
+
+    @Test
+    void prunedRecognitionMatchesFullEvaluation() {
+        long evaluated = 0;
+        long libraryCount = 0;
+
+        for (Map.Entry<String, Trace> scenario : scenarios().entrySet()) {
+            ShapeRecognizer.Recognition expected = reference.recognize(scenario.getValue(), K);
+            ShapeRecognizer.Recognition actual = recognizer.recognize(scenario.getValue(), K);
+
+            assertEquals(expected.libraryCount(), expected.evaluated(), scenario.getKey() + " : référence complète");
+            assertFalse(expected.matches().isEmpty(), scenario.getKey() + " : aucun modèle reconnu");
+            assertEquals(expected.matches(), actual.matches(), scenario.getKey());
+
+            evaluated += actual.evaluated();
+            libraryCount += actual.libraryCount();
+        }
+
+        // Un tracé qui revient sur lui-même ressemble (en rayons) à beaucoup de modèles et en
+        // fait évaluer la plupart ; sur l'ensemble, moins de la moitié
+        assertTrue(2 * evaluated < libraryCount, evaluated + " modèles évalués sur " + libraryCount);
+    }
+
+    @Test
+    void recognizesLibraryShapes() {
+        PathGenerator generator = new PathGenerator(2);
+        Map<String, List<Point>> shapes = Map.of(
+                "arc +0.30", generator.generateArc(new Point(0, 0), new Point(120, 0), 200, 0.3 * 120),
+                "pics 3 × +0.20", generator.generateSpikyLine(new Point(0, 0), new Point(120, 0), 200, 3, 0.2 * 120));
+
+        for (Map.Entry<String, List<Point>> shape : shapes.entrySet()) {
+            ShapeRecognizer.Recognition recognition = recognizer.recognize(Trace.of(shape.getValue()), K);
+            assertEquals(shape.getKey(), recognition.matches().get(0).name());
+        }
+    }
+}
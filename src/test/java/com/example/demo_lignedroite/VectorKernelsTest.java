@@ -0,0 +1,76 @@
+package com.example.demo_lignedroite;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Les noyaux comparés aux boucles scalaires qu'ils remplacent, pour toutes les tailles autour
+ * des multiples de la largeur des vecteurs (reste scalaire compris). Ignoré si le module
+ * jdk.incubator.vector n'est pas chargé (profil Maven simd).
+ */
+class VectorKernelsTest {
+
+    @Test
+    void vectorKernelsMatchScalarLoops() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "jdk.incubator.vector absent (mvn -Psimd test)");
+        Random random = new Random(3);
+        double cos = Math.cos(Math.toRadians(37.25));
+        double sin = Math.sin(Math.toRadians(37.25));
+
+        for (int n = 0; n <= 70; n++) {
+            double[] xs = new double[n], ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextDouble() * 300;
+                ys[i] = random.nextDouble() * 300;
+            }
+
+            double[] outX = new double[n], outY = new double[n];
+            VectorKernels.rotate(xs, ys, n, cos, sin, outX, outY);
+            for (int i = 0; i < n; i++) {
+                assertEquals(xs[i] * cos - ys[i] * sin, outX[i], "rotation x, n = " + n);
+                assertEquals(xs[i] * sin + ys[i] * cos, outY[i], "rotation y, n = " + n);
+            }
+
+            double[] distances = new double[n];
+            int from = Math.min(n, 3);
+            VectorKernels.distances(12.5, -4, xs, ys, from, n, distances);
+            for (int j = from; j < n; j++) {
+                double dx = 12.5 - xs[j];
+                double dy = -4 - ys[j];
+                assertEquals(Math.sqrt(dx * dx + dy * dy), distances[j], "distance, n = " + n);
+            }
+
+            if (n >= 2) {
+                assertEquals(farthestFromLine(xs, ys, 1, n - 1, xs[0], ys[0], xs[n - 1], ys[n - 1]),
+                        VectorKernels.farthestFromLine(xs, ys, 1, n - 1, xs[0], ys[0], xs[n - 1], ys[n - 1]),
+                        "point le plus éloigné, n = " + n);
+                // Extrémités confondues : distance au point
+                assertEquals(farthestFromLine(xs, ys, 1, n - 1, xs[0], ys[0], xs[0], ys[0]),
+                        VectorKernels.farthestFromLine(xs, ys, 1, n - 1, xs[0], ys[0], xs[0], ys[0]),
+                        "point le plus éloigné (extrémités confondues), n = " + n);
+            }
+        }
+    }
+
+    /**
+     * Boucle scalaire de DouglasPeuckerAnalyzer : premier indice du maximum strict, -1 si aucun point n'est éloigné.
+     */
+    private static int farthestFromLine(double[] xs, double[] ys, int from, int to,
+                                        double ax, double ay, double bx, double by) {
+        double maxDistance = 0;
+        int maxIndex = -1;
+        for (int i = from; i < to; i++) {
+            double distance = DouglasPeuckerAnalyzer.distancePointToLine(xs[i], ys[i], ax, ay, bx, by);
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                maxIndex = i;
+            }
+        }
+        return maxIndex;
+    }
+}
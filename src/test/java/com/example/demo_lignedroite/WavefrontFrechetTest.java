@@ -0,0 +1,64 @@
+package com.example.demo_lignedroite;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Le front d'onde par tuiles face au calcul séquentiel de FrechetDistanceCalculator : résultats
+ * comparés au bit près, abandon compris.
+ */
+class WavefrontFrechetTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tailles de part et d'autre des bords de tuiles, carrées et rectangulaires, avec et sans abandon.
+     */
+    @Test
+    void wavefrontMatchesSerialAtTileBoundaries() {
+        int tile = WavefrontFrechet.TILE;
+        int[] sizes = {1, tile - 1, tile, tile + 1, 2 * tile - 1, 2 * tile, 2 * tile + 1, 3 * tile + 7};
+        Random random = new Random(42);
+
+        for (int n : sizes) {
+            for (int m : sizes) {
+                Trace p = randomWalk(random, n);
+                Trace q = randomWalk(random, m);
+                double exact = FrechetDistanceCalculator.calculateDiscreteFrechet(p, q, Double.POSITIVE_INFINITY);
+
+                for (double upperBound : new double[]{Double.POSITIVE_INFINITY, exact, exact * 0.9}) {
+                    assertEquals(FrechetDistanceCalculator.calculateDiscreteFrechet(p, q, upperBound),
+                            WavefrontFrechet.compute(p, q, upperBound, pool),
+                            n + " × " + m + " (borne " + upperBound + ")");
+                }
+            }
+        }
+    }
+
+    static Trace randomWalk(Random random, int size) {
+        Trace trace = new Trace(size);
+        double x = 0, y = 0;
+        for (int i = 0; i < size; i++) {
+            x += 1 + random.nextGaussian();
+            y += random.nextGaussian();
+            trace.set(i, x, y);
+        }
+        return trace;
+    }
+}